@@ -0,0 +1,91 @@
+package com.pinterest.benchmarks;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of reporting: creating a test with step nodes, and a Spark flush of a report that already
+ * holds a suite's worth of tests. Uses its own ExtentReports configured like ExtentManager's,
+ * writing to a temp directory, so the shared report and its shutdown hooks are not involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtentReportBenchmark {
+
+    /** Tests already in the report when flushing */
+    @Param({"10", "100"})
+    public int tests;
+
+    private Path dir;
+    private ExtentReports extent;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("extent-bench");
+        ExtentSparkReporter spark = new ExtentSparkReporter(dir.resolve("report.html").toString());
+        spark.config().setReportName("Automation Test Report");
+        spark.config().setDocumentTitle("Test Execution Report");
+        spark.config().setTheme(Theme.DARK);
+        extent = new ExtentReports();
+        extent.attachReporter(spark);
+        for (int i = 0; i < tests; i++) {
+            addTest(i);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private ExtentTest addTest(int i) {
+        ExtentTest test = extent.createTest("SearchTest - search" + i).assignCategory("SearchTest");
+        ExtentTest span = test.createNode("Search 'food recipes' (812 ms)");
+        span.createNode("Find search box (120 ms)").info("found");
+        span.createNode("Type query (240 ms)").info("typed");
+        test.info("Step " + i);
+        test.pass("✅ Test Passed");
+        return test;
+    }
+
+    @Benchmark
+    public ExtentTest createTestWithNodes() {
+        // The report grows during the iteration, like during a suite
+        return addTest(counter++);
+    }
+
+    @Benchmark
+    public void flush() {
+        extent.flush();
+    }
+}
@@ -0,0 +1,81 @@
+package com.pinterest.benchmarks;
+
+import com.pinterest.utils.Artifacts;
+import com.pinterest.utils.CSVReader;
+import com.pinterest.utils.ConfigReader;
+import com.pinterest.utils.JsonReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm lookups the tests do on every step: test data by key, nested JSON keys, config
+ * properties and screenshot label sanitisation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HarnessLookupBenchmark {
+
+    @Setup
+    public void setUp() {
+        // Static loaders run once here, not inside the first measured call
+        CSVReader.getTestData("validUser");
+        JsonReader.get("search.validQuery");
+        ConfigReader.get("base.url");
+    }
+
+    @Benchmark
+    public Map<String, String> csvGetTestData() {
+        return CSVReader.getTestData("validUser");
+    }
+
+    @Benchmark
+    public String csvGetDataOrDefaultHit() {
+        return CSVReader.getDataOrDefault("validUser", "email", "none");
+    }
+
+    @Benchmark
+    public String csvGetDataOrDefaultMiss() {
+        return CSVReader.getDataOrDefault("noSuchUser", "email", "none");
+    }
+
+    @Benchmark
+    public String jsonGetNested() {
+        return JsonReader.get("search.validQuery");
+    }
+
+    @Benchmark
+    public String jsonGetParentChild() {
+        return JsonReader.get("validUser", "email");
+    }
+
+    @Benchmark
+    public String configGet() {
+        return ConfigReader.get("base.url");
+    }
+
+    @Benchmark
+    public int configGetIntDefault() {
+        return ConfigReader.getInt("screenshot.queue.capacity", 16);
+    }
+
+    @Benchmark
+    public String sanitizeLabel() {
+        return Artifacts.sanitize("Search 'food recipes' / results #3");
+    }
+}
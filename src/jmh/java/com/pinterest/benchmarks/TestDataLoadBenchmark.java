@@ -0,0 +1,90 @@
+package com.pinterest.benchmarks;
+
+import com.pinterest.utils.TestDataCompiler;
+import com.pinterest.utils.TestDataSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold load of the test data: CSV + JSON text parsing (the fallback path) versus
+ * decoding the compiled binary snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDataLoadBenchmark {
+
+    private String csvText;
+    private String jsonText;
+    private ByteBuffer snapshotBytes;
+    private Path snapshotFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dir = Paths.get("src/test/resources/testdata");
+        byte[] csv = Files.readAllBytes(dir.resolve("TestData.csv"));
+        byte[] json = Files.readAllBytes(dir.resolve("TestData.json"));
+        csvText = new String(csv, StandardCharsets.UTF_8);
+        jsonText = new String(json, StandardCharsets.UTF_8);
+
+        byte[] snapshot = TestDataCompiler.compile(csv, json);
+        snapshotBytes = ByteBuffer.wrap(snapshot);
+        snapshotFile = Files.createTempFile("TestData", ".bin");
+        Files.write(snapshotFile, snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public void textParse(Blackhole bh) throws IOException {
+        bh.consume(TestDataCompiler.parseCsv(new BufferedReader(new StringReader(csvText)), new ArrayList<>()));
+        bh.consume(TestDataCompiler.flattenJson(new StringReader(jsonText)));
+    }
+
+    @Benchmark
+    public void snapshotDecode(Blackhole bh) {
+        TestDataSnapshot snapshot = TestDataSnapshot.open(snapshotBytes);
+        bh.consume(snapshot.csvRows());
+        bh.consume(snapshot.jsonEntries());
+    }
+
+    @Benchmark
+    public void snapshotMappedLookup(Blackhole bh) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            TestDataSnapshot snapshot = TestDataSnapshot.open(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            bh.consume(snapshot.csvRows());
+            bh.consume(snapshot.jsonValue("search.validQuery"));
+        }
+    }
+}
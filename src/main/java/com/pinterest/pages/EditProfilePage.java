@@ -1,5 +1,6 @@
 package com.pinterest.pages;
 
+import com.pinterest.utils.Span;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
@@ -84,23 +85,31 @@ public class EditProfilePage {
     }
     
     public void updateProfile(String first, String last, String bio, String user) {
-        goToEditProfile();
-        
-        if (notEmpty(first)) {
-            clearAndType(firstName, first, "First Name");
-        }
-        if (notEmpty(last)) {
-            clearAndType(lastName, last, "Last Name");
-        }
-        if (notEmpty(bio)) {
-            clearAndType(about, bio, "About");
-        }
-        if (notEmpty(user)) {
-            scroll(username);
-            clearAndType(username, user, "Username");
+        try (Span update = Span.start("Update profile")) {
+            try (Span step = Span.start("Open edit profile")) {
+                goToEditProfile();
+            }
+            
+            try (Span step = Span.start("Fill fields")) {
+                if (notEmpty(first)) {
+                    clearAndType(firstName, first, "First Name");
+                }
+                if (notEmpty(last)) {
+                    clearAndType(lastName, last, "Last Name");
+                }
+                if (notEmpty(bio)) {
+                    clearAndType(about, bio, "About");
+                }
+                if (notEmpty(user)) {
+                    scroll(username);
+                    clearAndType(username, user, "Username");
+                }
+            }
+            
+            try (Span step = Span.start("Save")) {
+                clickSave();
+            }
         }
-        
-        clickSave();
     }
     
     public void setFirstName(String value) {
@@ -1,6 +1,7 @@
 package com.pinterest.pages;
 
 import com.aventstack.extentreports.ExtentTest;
+import com.pinterest.utils.WebVitals;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -51,6 +52,7 @@ public class HomePage {
         driver.get(url);
         logInfo("Navigating to URL: " + url);
         waitForPageLoad();
+        WebVitals.collect(driver, "HomePage.open");
     }
 
     /** Wait for page to load completely */
@@ -189,12 +191,12 @@ public class HomePage {
 
     
     private void logInfo(String msg) {
-        logger.info(msg);
+        logger.debug(msg);   // step detail; the Extent mirror below is what the report shows
         if (test != null) test.info(msg);
     }
 
     private void logPass(String msg) {
-        logger.info(msg);
+        logger.debug(msg);   // as logInfo: the report gets the pass entry
         if (test != null) test.pass(msg);
     }
 
@@ -1,5 +1,7 @@
 package com.pinterest.pages;
 
+import com.pinterest.utils.Budget;
+import com.pinterest.utils.Span;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
@@ -22,6 +24,10 @@ public class LoginPage {
     private WebDriverWait wait;
     
     private static final int WAIT_TIMEOUT_SECONDS = 15;
+
+    // Round trips login() may use; a fallback locator timing out blows the time budget
+    private static final int LOGIN_COMMAND_BUDGET = 25;
+    private static final Duration LOGIN_TIME_BUDGET = Duration.ofSeconds(20);
     
     // Multiple locators for dynamic elements
     private By[] emailInputLocators = {
@@ -160,28 +166,37 @@ public class LoginPage {
     public void login(String email, String password) {
         logger.info("Attempting login with email: {}", email);
         
-        // Fill email
-        if (!email.isEmpty()) {
-            WebElement emailField = findElementWithRetry(emailInputLocators, "Email field");
-            if (emailField != null) {
-                emailField.clear();
-                emailField.sendKeys(email);
-                logger.info("Email entered: {}", email);
+        try (Span login = Span.start("Login");
+             Budget budget = Budget.enter("LoginPage.login", LOGIN_COMMAND_BUDGET, LOGIN_TIME_BUDGET)) {
+            // Fill email
+            if (!email.isEmpty()) {
+                try (Span step = Span.start("Enter email")) {
+                    WebElement emailField = findElementWithRetry(emailInputLocators, "Email field");
+                    if (emailField != null) {
+                        emailField.clear();
+                        emailField.sendKeys(email);
+                        logger.info("Email entered: {}", email);
+                    }
+                }
             }
-        }
-        
-        // Fill password
-        if (!password.isEmpty()) {
-            WebElement passwordField = findElementWithRetry(passwordInputLocators, "Password field");
-            if (passwordField != null) {
-                passwordField.clear();
-                passwordField.sendKeys(password);
-                logger.debug("Password entered");
+            
+            // Fill password
+            if (!password.isEmpty()) {
+                try (Span step = Span.start("Enter password")) {
+                    WebElement passwordField = findElementWithRetry(passwordInputLocators, "Password field");
+                    if (passwordField != null) {
+                        passwordField.clear();
+                        passwordField.sendKeys(password);
+                        logger.debug("Password entered");
+                    }
+                }
+            }
+            
+            // Click submit button
+            try (Span step = Span.start("Submit")) {
+                clickSubmitButton();
             }
         }
-        
-        // Click submit button
-        clickSubmitButton();
     }
     
     /**
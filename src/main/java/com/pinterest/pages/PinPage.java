@@ -1,5 +1,7 @@
 package com.pinterest.pages;
 
+import com.pinterest.utils.Span;
+import com.pinterest.utils.WebVitals;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
@@ -63,7 +65,7 @@ public class PinPage {
         this.actions = new Actions(driver);
         this.js = (JavascriptExecutor) driver;
         PageFactory.initElements(driver, this);
-        logger.info("PinPage initialized");
+        logger.debug("PinPage initialized");
     }
     
     /**
@@ -75,7 +77,7 @@ public class PinPage {
         while (attempts < MAX_RETRY_ATTEMPTS) {
             try {
                 WebElement firstPin = wait.until(ExpectedConditions.visibilityOfElementLocated(pinLocator));
-                logger.info("First pin found successfully");
+                logger.debug("First pin found successfully");
                 return firstPin;
                 
             } catch (StaleElementReferenceException e) {
@@ -103,7 +105,7 @@ public class PinPage {
         try {
             wait.until(ExpectedConditions.presenceOfElementLocated(pinLocator));
             List<WebElement> pins = driver.findElements(pinLocator);
-            logger.info("Found {} pins on page", pins.size());
+            logger.debug("Found {} pins on page", pins.size());
             return pins;
         } catch (TimeoutException e) {
             logger.warn("No pins found on page");
@@ -133,7 +135,7 @@ public class PinPage {
             logger.warn("Error during scroll", e);
         }
         
-        logger.info("Scrolled pin into view");
+        logger.debug("Scrolled pin into view");
     }
     
     /**
@@ -158,7 +160,7 @@ public class PinPage {
             
             // Check if Save button appeared
             boolean saveButtonVisible = isSaveButtonVisible();
-            logger.info("Hovered over pin - Save button visible: {}", saveButtonVisible);
+            logger.debug("Hovered over pin - Save button visible: {}", saveButtonVisible);
             
         } catch (Exception e) {
             logger.warn("Error during hover", e);
@@ -191,7 +193,7 @@ public class PinPage {
             try {
                 WebElement btn = driver.findElement(locator);
                 if (btn.isDisplayed()) {
-                    logger.info("Found 'Saved' button - pin was saved successfully");
+                    logger.debug("Found 'Saved' button - pin was saved successfully");
                     return true;
                 }
             } catch (Exception e) {
@@ -213,7 +215,7 @@ public class PinPage {
                 for (int i = 0; i < saveButtonLocators.length; i++) {
                     try {
                         WebElement btn = wait.until(ExpectedConditions.visibilityOfElementLocated(saveButtonLocators[i]));
-                        logger.info("Save button found using strategy {}", (i + 1));
+                        logger.debug("Save button found using strategy {}", (i + 1));
                         return btn;
                     } catch (TimeoutException e) {
                         // Try next strategy
@@ -248,7 +250,7 @@ public class PinPage {
             try {
                 wait.until(ExpectedConditions.elementToBeClickable(saveBtn));
                 saveBtn.click();
-                logger.info("Save button clicked successfully");
+                logger.debug("Save button clicked successfully");
                 return;
                 
             } catch (ElementClickInterceptedException e) {
@@ -257,7 +259,7 @@ public class PinPage {
                 
                 try {
                     js.executeScript("arguments[0].click();", saveBtn);
-                    logger.info("Save button clicked using JavaScript");
+                    logger.debug("Save button clicked using JavaScript");
                     return;
                 } catch (Exception jsError) {
                     if (attempts >= MAX_RETRY_ATTEMPTS) {
@@ -290,10 +292,10 @@ public class PinPage {
                 ExpectedConditions.presenceOfElementLocated(boardModalLocator),
                 ExpectedConditions.presenceOfElementLocated(boardPickerLocator)
             ));
-            logger.info("Board selection modal appeared");
+            logger.debug("Board selection modal appeared");
             return true;
         } catch (TimeoutException e) {
-            logger.info("No board modal appeared - pin might be saved directly");
+            logger.debug("No board modal appeared - pin might be saved directly");
             return false;
         }
     }
@@ -315,7 +317,7 @@ public class PinPage {
                 js.executeScript("arguments[0].click();", firstBoard);
             }
             
-            logger.info("First board selected");
+            logger.debug("First board selected");
             
             // Wait for modal to close
             waitForBoardModalToClose();
@@ -343,7 +345,7 @@ public class PinPage {
                 js.executeScript("arguments[0].click();", board);
             }
             
-            logger.info("Board '{}' selected", boardName);
+            logger.debug("Board '{}' selected", boardName);
             
             waitForBoardModalToClose();
             
@@ -359,7 +361,7 @@ public class PinPage {
     private void waitForBoardModalToClose() {
         try {
             wait.until(ExpectedConditions.invisibilityOfElementLocated(boardModalLocator));
-            logger.info("Board modal closed");
+            logger.debug("Board modal closed");
         } catch (TimeoutException e) {
             logger.warn("Board modal did not close as expected");
         }
@@ -377,7 +379,7 @@ public class PinPage {
             for (By locator : savedButtonLocators) {
                 try {
                     shortWait.until(ExpectedConditions.presenceOfElementLocated(locator));
-                    logger.info("Save confirmation detected - 'Saved' button visible");
+                    logger.debug("Save confirmation detected - 'Saved' button visible");
                     return true;
                 } catch (TimeoutException e) {
                     // Try next locator
@@ -404,17 +406,34 @@ public class PinPage {
     public void saveFirstPin() {
         logger.info("Starting save first pin operation");
         
-        WebElement firstPin = getFirstPin();
-        scrollPinIntoView(firstPin);
-        hoverOverPin(firstPin);
-        clickSaveButton();
-        
-        if (isBoardModalDisplayed()) {
-            selectFirstBoard();
+        boolean confirmed;
+        try (Span save = Span.start("Save first pin")) {
+            WebElement firstPin;
+            try (Span step = Span.start("Find first pin")) {
+                firstPin = getFirstPin();
+            }
+            try (Span step = Span.start("Scroll into view")) {
+                scrollPinIntoView(firstPin);
+            }
+            try (Span step = Span.start("Hover")) {
+                hoverOverPin(firstPin);
+            }
+            try (Span step = Span.start("Click save")) {
+                clickSaveButton();
+            }
+            
+            try (Span step = Span.start("Board selection")) {
+                if (isBoardModalDisplayed()) {
+                    selectFirstBoard();
+                }
+            }
+            
+            // Wait for save confirmation
+            try (Span step = Span.start("Wait for confirmation")) {
+                confirmed = waitForSaveConfirmation();
+            }
         }
-        
-        // Wait for save confirmation
-        boolean confirmed = waitForSaveConfirmation();
+        WebVitals.collect(driver, "PinPage.saveFirstPin");
         
         if (confirmed) {
             logger.info("Pin saved successfully - confirmed");
@@ -1,5 +1,7 @@
 package com.pinterest.pages;
 
+import com.pinterest.utils.Span;
+import com.pinterest.utils.WebVitals;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -77,22 +79,32 @@ public class SearchPage {
     public void search(String query) {
         logger.info("Searching for: {}", query);
         
-        WebElement searchBox = getSearchBox();
-        
-        // Clear existing text
-        searchBox.clear();
-        logger.debug("Cleared search box");
-        
-        // Enter search query
-        searchBox.sendKeys(query);
-        logger.debug("Entered search query: {}", query);
-        
-        // Press Enter to search
-        searchBox.sendKeys(Keys.RETURN);
-        logger.debug("Pressed Enter to submit search");
-        
-        // Wait for search results page to load
-        waitForSearchResultsPage();
+        try (Span search = Span.start("Search").attribute("query", query)) {
+            WebElement searchBox;
+            try (Span step = Span.start("Find search box")) {
+                searchBox = getSearchBox();
+            }
+            
+            try (Span step = Span.start("Type query")) {
+                // Clear existing text
+                searchBox.clear();
+                logger.debug("Cleared search box");
+                
+                // Enter search query
+                searchBox.sendKeys(query);
+                logger.debug("Entered search query: {}", query);
+                
+                // Press Enter to search
+                searchBox.sendKeys(Keys.RETURN);
+                logger.debug("Pressed Enter to submit search");
+            }
+            
+            // Wait for search results page to load
+            try (Span step = Span.start("Wait for results")) {
+                waitForSearchResultsPage();
+            }
+        }
+        WebVitals.collect(driver, "SearchPage.search");
         
         logger.info("Search executed successfully for query: {}", query);
     }
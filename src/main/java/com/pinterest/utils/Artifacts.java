@@ -0,0 +1,198 @@
+package com.pinterest.utils;
+
+import org.openqa.selenium.firefox.HasFullPageScreenshot;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single entry point for screenshot artifacts.
+ *
+ * Files are named runId_t(threadId)_(sequence)_label.ext, so parallel failures in the same
+ * second never overwrite each other. Only the capture runs on the calling thread (its latency
+ * is recorded per call and per kind); writing goes through ScreenshotService/ScreenshotStore.
+ */
+public final class Artifacts {
+
+    public enum Kind { VIEWPORT, ELEMENT, FULL_PAGE }
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final Queue<Path> produced = new ConcurrentLinkedQueue<>();
+    private static final Map<Kind, LongAdder> captureCount = new EnumMap<>(Kind.class);
+    private static final Map<Kind, LongAdder> captureNanos = new EnumMap<>(Kind.class);
+
+    static {
+        for (Kind kind : Kind.values()) {
+            captureCount.put(kind, new LongAdder());
+            captureNanos.put(kind, new LongAdder());
+        }
+    }
+
+    /**
+     * A captured screenshot: where it will be, what it shows and what taking it cost the caller
+     */
+    public static final class Artifact {
+        private final Kind kind;
+        private final ScreenshotService.PendingScreenshot pending;
+        private final Duration captureLatency;
+
+        Artifact(Kind kind, ScreenshotService.PendingScreenshot pending, Duration captureLatency) {
+            this.kind = kind;
+            this.pending = pending;
+            this.captureLatency = captureLatency;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getPath() {
+            return pending.getPath().toString();
+        }
+
+        public ScreenshotService.PendingScreenshot getPending() {
+            return pending;
+        }
+
+        public Duration getCaptureLatency() {
+            return captureLatency;
+        }
+    }
+
+    /**
+     * What the browser currently shows
+     */
+    public static Artifact screenshot(WebDriver driver, String label) {
+        long start = System.nanoTime();
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return submit(Kind.VIEWPORT, png, label, start);
+    }
+
+    /**
+     * Just the given element, clipped by the driver
+     */
+    public static Artifact element(WebElement element, String label) {
+        long start = System.nanoTime();
+        byte[] png = element.getScreenshotAs(OutputType.BYTES);
+        return submit(Kind.ELEMENT, png, label, start);
+    }
+
+    /**
+     * The whole scrollable page: DevTools on Chromium, the native command on Firefox,
+     * otherwise falls back to the viewport
+     */
+    public static Artifact fullPage(WebDriver driver, String label) {
+        long start = System.nanoTime();
+        byte[] png;
+        if (driver instanceof HasCdp) {
+            png = captureBeyondViewport((HasCdp) driver);
+        } else if (driver instanceof HasFullPageScreenshot) {
+            png = ((HasFullPageScreenshot) driver).getFullPageScreenshotAs(OutputType.BYTES);
+        } else {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        }
+        return submit(Kind.FULL_PAGE, png, label, start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] captureBeyondViewport(HasCdp cdp) {
+        Map<String, Object> metrics = cdp.executeCdpCommand("Page.getLayoutMetrics", Map.of());
+        Map<String, Object> size = (Map<String, Object>) metrics.getOrDefault("cssContentSize", metrics.get("contentSize"));
+        Map<String, Object> clip = Map.of(
+                "x", 0, "y", 0,
+                "width", ((Number) size.get("width")).doubleValue(),
+                "height", ((Number) size.get("height")).doubleValue(),
+                "scale", 1);
+        Map<String, Object> result = cdp.executeCdpCommand("Page.captureScreenshot",
+                Map.of("format", "png", "captureBeyondViewport", true, "clip", clip));
+        return Base64.getDecoder().decode((String) result.get("data"));
+    }
+
+    private static Artifact submit(Kind kind, byte[] png, String label, long startNanos) {
+        Duration latency = Duration.ofNanos(System.nanoTime() - startNanos);
+        captureCount.get(kind).increment();
+        captureNanos.get(kind).add(latency.toNanos());
+
+        Path target = newFile(label, ScreenshotStore.extension());
+        Timeline.record("Screenshot " + kind, "screenshot", startNanos, System.nanoTime(), Map.of("label", String.valueOf(label)));
+        return new Artifact(kind, ScreenshotService.submit(png, target), latency);
+    }
+
+    /**
+     * Reserve a uniquely named file in the screenshot directory for another kind of artifact
+     */
+    public static Path newFile(String label, String extension) {
+        Path target = Paths.get(ExtentManager.getScreenshotDir(), fileName(label, extension));
+        produced.add(target);
+        return target;
+    }
+
+    /**
+     * runId_shardId_t(threadId)_(sequence)_label.ext, unique within the run even when forks share it
+     */
+    public static String fileName(String label, String extension) {
+        return RunContext.runId()
+                + "_" + RunContext.shardId()
+                + "_t" + Thread.currentThread().getId()
+                + "_" + String.format("%04d", sequence.incrementAndGet())
+                + "_" + sanitize(label)
+                + extension;
+    }
+
+    /**
+     * Make a label safe to use in a file name
+     */
+    public static String sanitize(String label) {
+        if (label == null || label.isBlank()) {
+            return "screenshot";
+        }
+        return label.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * One line per kind with count and average capture latency, e.g. for the end of the suite
+     */
+    public static String captureSummary() {
+        StringBuilder summary = new StringBuilder("Screenshot capture latency:");
+        for (Kind kind : Kind.values()) {
+            long count = captureCount.get(kind).sum();
+            if (count > 0) {
+                summary.append(String.format(" %s %d x avg %d ms;", kind, count,
+                        captureNanos.get(kind).sum() / count / 1_000_000));
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Every screenshot file this JVM has asked for (for retention bookkeeping)
+     */
+    public static List<Path> producedFiles() {
+        return new ArrayList<>(produced);
+    }
+
+    public static long getCaptureCount() {
+        long total = 0;
+        for (LongAdder count : captureCount.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    private Artifacts() {}
+}
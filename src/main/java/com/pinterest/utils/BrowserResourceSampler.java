@@ -0,0 +1,293 @@
+package com.pinterest.utils;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background CPU and memory samples of a Chromium page, per test.
+ *
+ * Polls DevTools Performance.getMetrics (JS heap, DOM nodes, layout and style recalc counts,
+ * renderer CPU time) every browser.sampler.interval.ms, plus SystemInfo.getProcessInfo for
+ * browser-wide CPU time where the page session answers it. A sample is also taken at the start
+ * and end of each test so short tests get a window too. When a poll costs more than 1% of the
+ * interval the next one is pushed back accordingly.
+ *
+ * browser.sampler.enabled=true turns sampling on.
+ */
+public final class BrowserResourceSampler implements AutoCloseable {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("browser.sampler.enabled", false);
+    private static final long INTERVAL_MS = Math.max(50, ConfigReader.getInt("browser.sampler.interval.ms", 1000));
+    private static final double MAX_OVERHEAD = 0.01;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "browser-resource-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final DevTools devTools;
+    private volatile boolean closed;
+    private volatile boolean processInfo = true;
+
+    // Current test window, guarded by this
+    private Sample first;
+    private Sample last;
+    private int samples;
+    private long heapPeak;
+    private double heapSum;
+    private long nodesPeak;
+    private double nodesSum;
+    private long windowStartNanos = System.nanoTime();
+    private long costNanos;
+
+    /**
+     * One Performance.getMetrics reading
+     */
+    private static final class Sample {
+        long heapBytes;
+        long nodes;
+        long layouts;
+        long styleRecalcs;
+        double cpuSeconds;          // renderer process (ProcessTime), or main thread busy time (TaskDuration)
+        double browserCpuSeconds = -1;
+    }
+
+    /**
+     * Peaks, averages and counters of one test window
+     */
+    public static final class Summary {
+        private final Map<String, Number> values = new LinkedHashMap<>();
+
+        public Map<String, Number> getValues() {
+            return values;
+        }
+
+        public Number get(String key) {
+            return values.get(key);
+        }
+
+        /**
+         * Two-row table (header, values) for the report
+         */
+        public String[][] table() {
+            String[][] table = new String[2][values.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : values.entrySet()) {
+                table[0][i] = entry.getKey();
+                Number value = entry.getValue();
+                table[1][i] = value instanceof Double ? String.format("%.1f", value.doubleValue()) : String.valueOf(value);
+                i++;
+            }
+            return table;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("JS heap %.1f MB peak / %.1f MB avg, %d DOM nodes peak, %d layouts, CPU %d ms (%d samples)",
+                    values.get("heapPeakMb").doubleValue(), values.get("heapAvgMb").doubleValue(),
+                    values.get("nodesPeak").longValue(), values.get("layouts").longValue(),
+                    values.get("cpuMs").longValue(), values.get("samples").intValue());
+        }
+    }
+
+    /**
+     * Start sampling if enabled and the driver speaks DevTools, otherwise null
+     */
+    public static BrowserResourceSampler startIfEnabled(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<Void>("Performance.enable", Map.of()));
+            BrowserResourceSampler sampler = new BrowserResourceSampler(devTools);
+            scheduler.schedule(sampler::poll, INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return sampler;
+        } catch (RuntimeException e) {
+            System.err.println("Browser resource sampling not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private BrowserResourceSampler(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            record(sample());
+        } catch (RuntimeException e) {
+            if (!closed) {
+                System.err.println("Browser resource sampling stopped: " + e.getMessage());
+            }
+            closed = true;
+            return;
+        }
+        long cost = System.nanoTime() - start;
+        synchronized (this) {
+            costNanos += cost;
+        }
+        long delay = Math.max(INTERVAL_MS, (long) (cost / MAX_OVERHEAD / 1_000_000));
+        scheduler.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Sample sample() {
+        Map<String, Object> result = devTools.send(new Command<>("Performance.getMetrics", Map.of(),
+                input -> input.read(Json.MAP_TYPE)));
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        Object list = result.get("metrics");
+        if (list instanceof List) {
+            for (Object item : (List<?>) list) {
+                Map<?, ?> metric = (Map<?, ?>) item;
+                metrics.put(String.valueOf(metric.get("name")), ((Number) metric.get("value")).doubleValue());
+            }
+        }
+        Sample sample = new Sample();
+        sample.heapBytes = metrics.getOrDefault("JSHeapUsedSize", 0d).longValue();
+        sample.nodes = metrics.getOrDefault("Nodes", 0d).longValue();
+        sample.layouts = metrics.getOrDefault("LayoutCount", 0d).longValue();
+        sample.styleRecalcs = metrics.getOrDefault("RecalcStyleCount", 0d).longValue();
+        sample.cpuSeconds = metrics.containsKey("ProcessTime")
+                ? metrics.get("ProcessTime") : metrics.getOrDefault("TaskDuration", 0d);
+        sample.browserCpuSeconds = browserCpuSeconds();
+        return sample;
+    }
+
+    /**
+     * Sum of cpuTime over all browser processes; -1 once the session has refused SystemInfo
+     * (it is a browser-target domain and page sessions often do not expose it)
+     */
+    private double browserCpuSeconds() {
+        if (!processInfo) {
+            return -1;
+        }
+        try {
+            Map<String, Object> result = devTools.send(new Command<>("SystemInfo.getProcessInfo", Map.of(),
+                    input -> input.read(Json.MAP_TYPE)));
+            double total = 0;
+            Object list = result.get("processInfo");
+            if (list instanceof List) {
+                for (Object item : (List<?>) list) {
+                    Object cpu = ((Map<?, ?>) item).get("cpuTime");
+                    if (cpu instanceof Number) {
+                        total += ((Number) cpu).doubleValue();
+                    }
+                }
+            }
+            return total;
+        } catch (RuntimeException e) {
+            processInfo = false;
+            return -1;
+        }
+    }
+
+    private synchronized void record(Sample sample) {
+        if (first == null) {
+            first = sample;
+        }
+        last = sample;
+        samples++;
+        heapPeak = Math.max(heapPeak, sample.heapBytes);
+        heapSum += sample.heapBytes;
+        nodesPeak = Math.max(nodesPeak, sample.nodes);
+        nodesSum += sample.nodes;
+    }
+
+    private synchronized void resetWindow() {
+        first = null;
+        last = null;
+        samples = 0;
+        heapPeak = 0;
+        heapSum = 0;
+        nodesPeak = 0;
+        nodesSum = 0;
+        costNanos = 0;
+        windowStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Start a new window with a baseline sample (start of a test)
+     */
+    public void beginTest() {
+        resetWindow();
+        sampleNow();
+    }
+
+    /**
+     * Close the window with a final sample, journal it for the current test and start a new one.
+     * Null when sampling has stopped or nothing was collected.
+     */
+    public Summary endTest() {
+        sampleNow();
+        Summary summary;
+        synchronized (this) {
+            summary = summarize();
+        }
+        resetWindow();
+        if (summary != null) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("test", ThreadContext.get(TestLogBuffer.TEST_ID_KEY));
+            fields.putAll(summary.getValues());
+            ResultsJournal.get().append("browser_resources", fields);
+        }
+        return summary;
+    }
+
+    private void sampleNow() {
+        if (closed) {
+            return;
+        }
+        try {
+            record(sample());
+        } catch (RuntimeException e) {
+            System.err.println("Browser resource sample failed: " + e.getMessage());
+        }
+    }
+
+    private Summary summarize() {
+        if (samples == 0) {
+            return null;
+        }
+        double mb = 1024 * 1024;
+        long wallNanos = Math.max(1, System.nanoTime() - windowStartNanos);
+        Summary summary = new Summary();
+        summary.values.put("samples", samples);
+        summary.values.put("heapPeakMb", heapPeak / mb);
+        summary.values.put("heapAvgMb", heapSum / samples / mb);
+        summary.values.put("nodesPeak", nodesPeak);
+        summary.values.put("nodesAvg", Math.round(nodesSum / samples));
+        summary.values.put("layouts", Math.max(0, last.layouts - first.layouts));
+        summary.values.put("styleRecalcs", Math.max(0, last.styleRecalcs - first.styleRecalcs));
+        summary.values.put("cpuMs", Math.round(Math.max(0, last.cpuSeconds - first.cpuSeconds) * 1000));
+        if (first.browserCpuSeconds >= 0 && last.browserCpuSeconds >= 0) {
+            summary.values.put("browserCpuMs", Math.round((last.browserCpuSeconds - first.browserCpuSeconds) * 1000));
+        }
+        summary.values.put("overheadPct", 100.0 * costNanos / wallNanos);
+        return summary;
+    }
+
+    /**
+     * Stop polling (before the driver quits)
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
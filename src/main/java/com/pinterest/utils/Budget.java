@@ -0,0 +1,131 @@
+package com.pinterest.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A WebDriver round-trip budget for one flow on the current thread:
+ *
+ *   try (Budget budget = Budget.enter("LoginPage.login", 30, Duration.ofSeconds(20))) { ... }
+ *
+ * Commands are counted by the CommandMetrics listener (driver.metrics.enabled), wall time always.
+ * Going over on close either throws (budget.mode=fail) or records a warning with the command
+ * breakdown (budget.mode=warn, the default) that BaseTest adds to the test's report.
+ * Budgets nest; a command counts against every open budget on the thread.
+ */
+public final class Budget implements AutoCloseable {
+
+    private static final boolean FAIL = ConfigReader.get("budget.mode", "warn").trim().equalsIgnoreCase("fail");
+
+    private static final ThreadLocal<List<Budget>> open = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<String>> violations = ThreadLocal.withInitial(ArrayList::new);
+
+    private final String name;
+    private final int maxCommands;
+    private final Duration maxTime;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Integer> commands = new TreeMap<>();
+    private int count;
+    private boolean closed;
+
+    private Budget(String name, int maxCommands, Duration maxTime) {
+        this.name = name;
+        this.maxCommands = maxCommands;
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * Open a budget; maxCommands below 0 or a null maxTime means that dimension is unlimited
+     */
+    public static Budget enter(String name, int maxCommands, Duration maxTime) {
+        Budget budget = new Budget(name, maxCommands, maxTime);
+        open.get().add(budget);
+        return budget;
+    }
+
+    /**
+     * Called by the CommandMetrics listener for every command on this thread
+     */
+    static void record(String command) {
+        List<Budget> budgets = open.get();
+        for (int i = 0; i < budgets.size(); i++) {
+            Budget budget = budgets.get(i);
+            budget.count++;
+            budget.commands.merge(command, 1, Integer::sum);
+        }
+    }
+
+    public int getCommandCount() {
+        return count;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Description of the overrun, or null while within budget
+     */
+    public String check() {
+        Duration elapsed = getElapsed();
+        boolean tooChatty = maxCommands >= 0 && count > maxCommands;
+        boolean tooSlow = maxTime != null && elapsed.compareTo(maxTime) > 0;
+        if (!tooChatty && !tooSlow) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder("Budget exceeded for ").append(name).append(':');
+        if (tooChatty) {
+            message.append(' ').append(count).append(" commands (max ").append(maxCommands).append(')');
+        }
+        if (tooSlow) {
+            message.append(' ').append(elapsed.toMillis()).append(" ms (max ").append(maxTime.toMillis()).append(" ms)");
+        }
+        message.append(" - ").append(commands);
+        return message.toString();
+    }
+
+    /**
+     * Stop counting and enforce the budget
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        open.get().remove(this);
+        String overrun = check();
+        if (overrun == null) {
+            return;
+        }
+        if (FAIL) {
+            throw new RuntimeException(overrun);
+        }
+        System.err.println(overrun);
+        violations.get().add(overrun);
+    }
+
+    /**
+     * Warnings recorded on this thread since the last call (report them on the current test)
+     */
+    public static List<String> drainViolations() {
+        List<String> recorded = violations.get();
+        List<String> copy = new ArrayList<>(recorded);
+        recorded.clear();
+        return copy;
+    }
+
+    /**
+     * Drop budgets left open on this thread (a test that threw before closing them)
+     */
+    public static void reset() {
+        open.get().clear();
+    }
+
+    public static boolean isFailMode() {
+        return FAIL;
+    }
+}
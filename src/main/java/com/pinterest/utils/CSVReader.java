@@ -14,9 +14,10 @@ public class CSVReader {
     private static final String TEST_DATA_PATH = "testdata/TestData.csv";
     private static List<Map<String, String>> testData;
     
-    // Load CSV data once when class is loaded
+    // Load data once when class is loaded: compiled snapshot first, CSV text as fallback
     static {
-        testData = loadCSV();
+        TestDataSnapshot snapshot = TestDataSnapshot.loadFromClasspath();
+        testData = (snapshot != null) ? snapshot.csvRows() : loadCSV();
     }
     
     /**
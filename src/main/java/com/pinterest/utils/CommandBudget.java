@@ -0,0 +1,20 @@
+package com.pinterest.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum WebDriver commands and wall time a test method may use, checked by BaseTest.
+ * Page-object methods use Budget.enter(...) around the flow instead.
+ * A negative value means no limit.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CommandBudget {
+
+    int commands() default -1;
+
+    long millis() default -1;
+}
@@ -0,0 +1,192 @@
+package com.pinterest.utils;
+
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebDriver command count and latency, recorded by an EventFiringDecorator listener.
+ *
+ * Every call on the driver, its elements and its option objects (findElement, click,
+ * executeScript, getScreenshotAs, ...) is timed into an HdrHistogram per command, per
+ * page-object class (first com.pinterest.pages frame on the stack) and per test
+ * (between beginTest and endTest on the same thread). Enabled with driver.metrics.enabled.
+ */
+public final class CommandMetrics {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("driver.metrics.enabled", false);
+    private static final String PAGES_PACKAGE = "com.pinterest.pages.";
+
+    private static final Map<String, Histogram> byCommand = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> byPage = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Histogram>> byTest = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Long>> started = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Wrap the driver in the timing listener if enabled, otherwise return it unchanged
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        if (!ENABLED) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(new Listener()).decorate(driver);
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static final class Listener implements WebDriverListener {
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            started.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finish(method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish(method); // failed lookups spend their implicit wait here, they count too
+        }
+    }
+
+    private static void finish(Method method) {
+        Long start = started.get().poll();
+        if (start == null) {
+            return;
+        }
+        long micros = Math.max(1, (System.nanoTime() - start) / 1000);
+        String command = method.getName();
+        Budget.record(command);
+
+        record(byCommand, command, micros);
+        record(byPage, pageObject() + " " + command, micros);
+        Map<String, Histogram> test = byTest.get();
+        if (test != null) {
+            record(test, command, micros);
+        }
+    }
+
+    private static void record(Map<String, Histogram> histograms, String key, long micros) {
+        Histogram histogram = histograms.computeIfAbsent(key, k -> new Histogram(2));
+        synchronized (histogram) {
+            histogram.recordValue(micros);
+        }
+    }
+
+    /**
+     * Simple name of the innermost page object on the calling stack, or "(test code)"
+     */
+    static String pageObject() {
+        return walker.walk(frames -> frames
+                .map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(c -> c.getName().startsWith(PAGES_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse("(test code)"));
+    }
+
+    /**
+     * Live suite histograms per command, in microseconds (for MetricsServer)
+     */
+    static Map<String, Histogram> commandHistograms() {
+        return byCommand;
+    }
+
+    /**
+     * Start per-test histograms for the calling thread
+     */
+    public static void beginTest() {
+        if (ENABLED) {
+            byTest.set(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * One line for the test's report: command count, time in the driver and the busiest commands.
+     * Empty if nothing was recorded.
+     */
+    public static String endTest() {
+        Map<String, Histogram> test = byTest.get();
+        byTest.remove();
+        if (test == null || test.isEmpty()) {
+            return "";
+        }
+        long count = 0;
+        double totalMs = 0;
+        StringBuilder top = new StringBuilder();
+        for (Histogram h : test.values()) {
+            count += h.getTotalCount();
+            totalMs += totalMs(h);
+        }
+        int shown = 0;
+        for (Map.Entry<String, Histogram> e : sortedByTotal(test)) {
+            if (shown++ == 3) {
+                break;
+            }
+            Histogram h = e.getValue();
+            top.append(shown == 1 ? "" : ", ").append(String.format("%s %d x p95 %.1f ms",
+                    e.getKey(), h.getTotalCount(), h.getValueAtPercentile(95) / 1000.0));
+        }
+        return String.format("WebDriver: %d commands, %.0f ms in the driver (%s)", count, totalMs, top);
+    }
+
+    /**
+     * Suite totals per command and per page-object command, slowest total first
+     */
+    public static String summary() {
+        if (byCommand.isEmpty()) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        table(out, "Command", byCommand);
+        out.append('\n');
+        table(out, "Page object / command", byPage);
+        return out.toString();
+    }
+
+    private static void table(StringBuilder out, String title, Map<String, Histogram> histograms) {
+        out.append(String.format("%-44s %7s %11s %9s %9s %9s %9s%n",
+                title, "count", "total ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, Histogram> e : sortedByTotal(histograms)) {
+            Histogram h = e.getValue();
+            synchronized (h) {
+                out.append(String.format("%-44s %7d %11.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        e.getKey(), h.getTotalCount(), totalMs(h),
+                        h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                        h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0));
+            }
+        }
+    }
+
+    private static List<Map.Entry<String, Histogram>> sortedByTotal(Map<String, Histogram> histograms) {
+        List<Map.Entry<String, Histogram>> entries = new ArrayList<>(new TreeMap<>(histograms).entrySet());
+        entries.sort((a, b) -> Double.compare(totalMs(b.getValue()), totalMs(a.getValue())));
+        return entries;
+    }
+
+    private static double totalMs(Histogram h) {
+        synchronized (h) {
+            return h.getMean() * h.getTotalCount() / 1000.0;
+        }
+    }
+
+    private CommandMetrics() {}
+}
@@ -2,55 +2,168 @@ package com.pinterest.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Layered configuration, resolved once per JVM.
+ *
+ * Lookup order (first hit wins):
+ *   1. System properties          -Dbase.url=...
+ *   2. Environment variables      PINTEREST_BASE_URL=... (PINTEREST_ prefix, dots and dashes become
+ *                                 underscores; the prefix keeps e.g. a desktop's BROWSER out of it)
+ *   3. Profile file               config-<profile>.properties, profile from -Dconfig.profile / PINTEREST_CONFIG_PROFILE
+ *   4. Defaults                   config.properties
+ */
 public class ConfigReader {
-    
-    private static Properties props = new Properties();
-    
+
+    private static final String DEFAULTS_FILE = "config.properties";
+    private static final String PROFILE_KEY = "config.profile";
+    private static final String ENV_PREFIX = "PINTEREST_";
+
+    private static final String profile;
+    private static final Map<String, String> values;
+    private static final TestConfig config;
+
+    // Keys outside the property files (optional settings) are resolved on first use and cached
+    private static final Map<String, Optional<String>> overrideCache = new ConcurrentHashMap<>();
+
     static {
-        try (InputStream is = ConfigReader.class.getClassLoader()
-                .getResourceAsStream("config.properties")) {
+        profile = resolveOverride(PROFILE_KEY);
+
+        Map<String, String> merged = new HashMap<>();
+        Properties defaults = load(DEFAULTS_FILE, true);
+        defaults.stringPropertyNames().forEach(k -> merged.put(k, defaults.getProperty(k)));
+
+        if (profile != null && !profile.trim().isEmpty()) {
+            Properties profileProps = load("config-" + profile.trim() + ".properties", true);
+            profileProps.stringPropertyNames().forEach(k -> merged.put(k, profileProps.getProperty(k)));
+        }
+
+        for (String key : merged.keySet()) {
+            String override = resolveOverride(key);
+            if (override != null) {
+                merged.put(key, override);
+            }
+        }
+
+        values = Collections.unmodifiableMap(merged);
+        config = TestConfig.from(profile == null ? "default" : profile.trim(), values);
+    }
+
+    private static Properties load(String resource, boolean required) {
+        Properties props = new Properties();
+        try (InputStream is = ConfigReader.class.getClassLoader().getResourceAsStream(resource)) {
             if (is != null) {
                 props.load(is);
-            } else {
-                throw new RuntimeException("config.properties file not found in classpath");
+            } else if (required) {
+                throw new RuntimeException(resource + " file not found in classpath");
             }
         } catch (IOException e) {
             e.printStackTrace();
-            throw new RuntimeException("Failed to load config.properties: " + e.getMessage());
+            throw new RuntimeException("Failed to load " + resource + ": " + e.getMessage());
+        }
+        return props;
+    }
+
+    /**
+     * System property first, then the matching environment variable
+     */
+    private static String resolveOverride(String key) {
+        String value = System.getProperty(key);
+        if (value != null) {
+            return value;
+        }
+        return System.getenv(toEnvName(key));
+    }
+
+    /**
+     * base.url -> PINTEREST_BASE_URL, page.load.timeout -> PINTEREST_PAGE_LOAD_TIMEOUT
+     */
+    static String toEnvName(String key) {
+        return ENV_PREFIX + key.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+
+    private static String lookup(String key) {
+        String value = values.get(key);
+        if (value != null) {
+            return value;
         }
+        return overrideCache.computeIfAbsent(key, k -> Optional.ofNullable(resolveOverride(k))).orElse(null);
+    }
+
+    /**
+     * Typed, validated settings shared across threads
+     */
+    public static TestConfig config() {
+        return config;
+    }
+
+    /**
+     * Active profile name ("default" when none is selected)
+     */
+    public static String getProfile() {
+        return config.getProfile();
     }
-    
+
     /**
      * Get property value as String
      */
     public static String get(String key) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
-            throw new RuntimeException("Property '" + key + "' not found in config.properties");
+            throw new RuntimeException("Property '" + key + "' not found in configuration (profile '"
+                    + config.getProfile() + "')");
         }
         return value;
     }
-    
+
     /**
      * Get property value as String with default value
      */
     public static String get(String key, String defaultValue) {
-        return props.getProperty(key, defaultValue);
+        String value = lookup(key);
+        return value == null ? defaultValue : value;
     }
-    
+
     /**
      * Get property value as boolean
      */
     public static boolean getBoolean(String key) {
         return Boolean.parseBoolean(get(key));
     }
-    
+
+    /**
+     * Get property value as boolean with default value
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = lookup(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
     /**
      * Get property value as int
      */
     public static int getInt(String key) {
-        return Integer.parseInt(get(key));
+        return Integer.parseInt(get(key).trim());
+    }
+
+    /**
+     * Get property value as int with default value
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property '" + key + "' is not a number: " + value);
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,13 +5,21 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 public class DriverFactory {
     
+    /**
+     * Create a driver for the configured browser and headless mode
+     */
+    public static WebDriver createInstance() {
+        TestConfig config = ConfigReader.config();
+        return createInstance(config.getBrowser(), config.isHeadless());
+    }
+    
     public static WebDriver createInstance(String browser, boolean headless) {
+        long start = System.nanoTime();
         WebDriver driver;
         
         if (browser == null || browser.isEmpty() || browser.equalsIgnoreCase("chrome")) {
@@ -47,20 +55,31 @@ public class DriverFactory {
             options.addArguments("--disable-dev-shm-usage");
             options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation", "enable-logging"});
             options.setExperimentalOption("useAutomationExtension", false);
-            
+
+            // Host mapping, e.g. to an offline stand-in server (set at runtime by PinterestStubServer)
+            String resolverRules = ConfigReader.get("browser.host.resolver.rules", "");
+            if (!resolverRules.isEmpty()) {
+                options.addArguments("--host-resolver-rules=" + resolverRules);
+            }
+            if (ConfigReader.getBoolean("browser.accept.insecure.certs", false)) {
+                options.setAcceptInsecureCerts(true);
+            }
+
             driver = new ChromeDriver(options);
             
         } else {
             throw new IllegalArgumentException("Unsupported browser: " + browser);
         }
         
-        // Set timeouts from config
-        int implicitWait = Integer.parseInt(ConfigReader.get("implicit.wait"));
-        int pageLoadTimeout = Integer.parseInt(ConfigReader.get("page.load.timeout"));
+        // Set timeouts from config (parsed once by ConfigReader)
+        TestConfig config = ConfigReader.config();
+        driver.manage().timeouts().implicitlyWait(config.getImplicitWait());
+        driver.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout());
         
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
-        
-        return driver;
+        Timeline.record("Driver launch", "driver", start, System.nanoTime(), Map.of("browser", String.valueOf(browser)));
+        MetricsServer.driverStarted();
+
+        // Optional command timing (driver.metrics.enabled); the decorated driver keeps all interfaces
+        return CommandMetrics.decorate(driver);
     }
 }
\ No newline at end of file
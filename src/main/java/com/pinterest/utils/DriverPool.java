@@ -0,0 +1,122 @@
+package com.pinterest.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bounded pool of browser sessions for fanning scenarios out across threads.
+ * Drivers are created lazily through DriverFactory up to the pool size and quit on close.
+ */
+public class DriverPool implements AutoCloseable {
+
+    private static final Set<DriverPool> open = ConcurrentHashMap.newKeySet();
+
+    private final int maxSize;
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final List<WebDriver> owned = Collections.synchronizedList(new ArrayList<>());
+    private int size;
+
+    public DriverPool(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Driver pool size must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        open.add(this);
+    }
+
+    /**
+     * Pools not closed yet (for MetricsServer)
+     */
+    static Set<DriverPool> openPools() {
+        return open;
+    }
+
+    /**
+     * Add an existing driver (e.g. BaseTest's) to the pool. The caller keeps ownership and quits it.
+     */
+    public synchronized void adopt(WebDriver driver) {
+        if (size >= maxSize) {
+            return;
+        }
+        size++;
+        idle.add(driver);
+    }
+
+    /**
+     * Take an idle driver, creating one if the pool is not full yet, otherwise wait for a release
+     */
+    public WebDriver borrow() throws InterruptedException {
+        WebDriver driver = idle.poll();
+        if (driver != null) {
+            return driver;
+        }
+
+        boolean create;
+        synchronized (this) {
+            create = size < maxSize;
+            if (create) {
+                size++;
+            }
+        }
+
+        if (create) {
+            try {
+                // Browser start-up happens outside the lock so sessions launch in parallel
+                driver = DriverFactory.createInstance();
+                owned.add(driver);
+                return driver;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    size--;
+                }
+                throw e;
+            }
+        }
+        return idle.take();
+    }
+
+    public void release(WebDriver driver) {
+        if (driver != null) {
+            idle.add(driver);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Quit every driver the pool created (adopted drivers are left to their owner)
+     */
+    @Override
+    public void close() {
+        synchronized (owned) {
+            for (WebDriver driver : owned) {
+                try {
+                    driver.quit();
+                    MetricsServer.driverQuit();
+                } catch (Exception e) {
+                    System.err.println("Failed to quit pooled driver: " + e.getMessage());
+                }
+            }
+            owned.clear();
+        }
+        idle.clear();
+        open.remove(this);
+    }
+}
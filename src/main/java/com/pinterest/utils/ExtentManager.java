@@ -1,18 +1,36 @@
 package com.pinterest.utils;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
 
 import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Author;
+import com.aventstack.extentreports.model.Category;
+import com.aventstack.extentreports.model.Device;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.Test;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
 public class ExtentManager {
 
     private static ExtentReports extent;
+    private static ReportFlusher flusher;
+    // Per-thread report a running test logs into; nothing renders it (see publish)
+    private static final ThreadLocal<ExtentReports> staging = ThreadLocal.withInitial(ExtentReports::new);
     private static String reportPath; // <-- store path for later use
     private static final String SCREENSHOT_DIR = System.getProperty("user.dir") + "/test-output/screenshots/";
+    // live: Spark report rendered during the run; journal: only the results journal, rendered afterwards
+    private static final String REPORT_MODE = ConfigReader.get("report.mode", "live").trim().toLowerCase();
 
     // Optional: expose the path for logging/CI usage
     public static String getReportPath() {
@@ -24,11 +42,23 @@ public class ExtentManager {
         return SCREENSHOT_DIR;
     }
 
+    public static boolean isLiveReport() {
+        return !REPORT_MODE.equals("journal");
+    }
+
     public static synchronized ExtentReports getExtentReport() { // <-- synchronized for safety
+        if (extent == null && !isLiveReport()) {
+            // Tests still log to an in-memory ExtentReports; the HTML is built by ReportRenderer
+            extent = new ExtentReports();
+            System.out.println("Report mode 'journal': render with mvn exec:java@render-report ("
+                    + ResultsJournal.runDirectory() + ")");
+            startRetention();
+        }
         if (extent == null) {
             String timestamp = new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
+            String shard = RunContext.isSharded() ? "_" + RunContext.shardId() : ""; // forks would overwrite each other
             reportPath = System.getProperty("user.dir")
-                    + "/test-output/ExtentReport_" + timestamp + ".html";
+                    + "/test-output/ExtentReport_" + timestamp + shard + ".html";
 
             // Ensure screenshots dir exists (helpful for saving images)
             File ssDir = new File(SCREENSHOT_DIR);
@@ -36,7 +66,9 @@ public class ExtentManager {
                 ssDir.mkdirs();
             }
 
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+            // Spark renders into a partial file; the flusher renames it over reportPath after each write
+            String partialPath = reportPath.replace(".html", ".partial.html");
+            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(partialPath);
             sparkReporter.config().setReportName("Automation Test Report");
             sparkReporter.config().setDocumentTitle("Test Execution Report");
             sparkReporter.config().setTheme(Theme.DARK);
@@ -47,7 +79,114 @@ public class ExtentManager {
             extent.setSystemInfo("Project", "Pinterest Automation");
             extent.setSystemInfo("Tester", "Asmi Bajracharya");
             extent.setSystemInfo("Environment", "QA");
+
+            Duration interval = Duration.ofSeconds(ConfigReader.getInt("report.flush.interval.seconds", 5));
+            flusher = new ReportFlusher(extent, Paths.get(partialPath), Paths.get(reportPath), interval);
+            startRetention();
         }
         return extent;
     }
+
+    /**
+     * Trim old runs in the background now; at exit write the final report, then record this run
+     */
+    private static void startRetention() {
+        RetentionManager.startAsync();
+        ReportFlusher f = flusher;
+        String report = reportPath;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (f != null) {
+                f.shutdown();
+            }
+            Timeline.export();  // after the final flush so it is on the timeline too
+            List<Path> files = new ArrayList<>(Artifacts.producedFiles());
+            if (report != null) {
+                files.add(Paths.get(report));
+            }
+            files.add(ResultsJournal.runDirectory());
+            RetentionManager.recordRun(files);
+        }, "extent-report-final-flush"));
+    }
+
+    /**
+     * Test for the current thread to log into while it runs; hand it to publish when done
+     */
+    public static ExtentTest stageTest(String name) {
+        return staging.get().createTest(name);
+    }
+
+    /**
+     * Add a finished staged test to the report. Never blocks: the copy is made on the report
+     * writer thread right before it renders, so Spark never sees a test that is still changing.
+     */
+    public static void publish(ExtentTest staged) {
+        staging.get().removeTest(staged);
+        Test model = staged.getModel();
+        update(report -> copy(model, report.createTest(model.getName(), model.getDescription())));
+    }
+
+    /**
+     * Change the report model (e.g. runner output); applied by the report writer
+     */
+    public static void update(Consumer<ExtentReports> change) {
+        ReportFlusher f;
+        ExtentReports report;
+        synchronized (ExtentManager.class) {
+            f = flusher;
+            report = extent;
+        }
+        if (f != null) {
+            f.update(change);
+        } else if (report != null) {
+            synchronized (report) { // journal mode: nothing renders this report
+                change.accept(report);
+            }
+        }
+    }
+
+    private static void copy(Test from, ExtentTest to) {
+        from.getCategorySet().stream().map(Category::getName).forEach(to::assignCategory);
+        from.getAuthorSet().stream().map(Author::getName).forEach(to::assignAuthor);
+        from.getDeviceSet().stream().map(Device::getName).forEach(to::assignDevice);
+        for (Log log : List.copyOf(from.getLogs())) {
+            to.log(log.getStatus(), log.getDetails(),
+                    log.getException() == null ? null : log.getException().getException(), log.getMedia());
+            List<Log> copied = to.getModel().getLogs();
+            copied.get(copied.size() - 1).setTimestamp(log.getTimestamp());
+        }
+        for (Media media : List.copyOf(from.getMedia())) {
+            to.getModel().addMedia(media);
+        }
+        for (Test child : List.copyOf(from.getChildren())) {
+            copy(child, to.createNode(child.getName(), child.getDescription()));
+        }
+        to.getModel().setStartTime(from.getStartTime());
+        to.getModel().setEndTime(from.getEndTime());
+    }
+
+    /**
+     * Ask the background writer to re-render the report. Never blocks the caller.
+     */
+    public static void requestFlush() {
+        ReportFlusher f;
+        synchronized (ExtentManager.class) {
+            f = flusher;
+        }
+        if (f != null) {
+            f.requestFlush();
+        }
+    }
+
+    /**
+     * Write the report now and wait for it (suite end)
+     */
+    public static void flushNow() {
+        ReportFlusher f;
+        synchronized (ExtentManager.class) {
+            f = flusher;
+        }
+        if (f != null) {
+            f.flushNow();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,351 @@
+package com.pinterest.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Continuously collects console output, JS errors and network activity of a Chromium session
+ * over DevTools into bounded in-memory rings. Nothing is serialised while tests pass; on a
+ * failure the rings plus the serialised DOM are written as one zip:
+ *
+ *   dom.html, console.json, network.har, page.json
+ *
+ * Ring sizes: failure.bundle.console.max (500), failure.bundle.network.max (300).
+ * failure.bundle.enabled=false turns collection off. Request bodies and the Cookie, Set-Cookie and
+ * Authorization headers are redacted in the HAR (login posts carry the test account's password)
+ * unless failure.bundle.har.secrets=true.
+ */
+public class FailureBundle {
+
+    /** Artifact kind used in the results journal */
+    public static final String KIND = "FAILURE_BUNDLE";
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("failure.bundle.enabled", true);
+    private static final int CONSOLE_MAX = ConfigReader.getInt("failure.bundle.console.max", 500);
+    private static final int NETWORK_MAX = ConfigReader.getInt("failure.bundle.network.max", 300);
+    private static final boolean HAR_SECRETS = ConfigReader.getBoolean("failure.bundle.har.secrets", false);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "failure-bundle-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final AtomicInteger pending = new AtomicInteger();
+
+    private final WebDriver driver;
+    private final ArrayDeque<Map<String, Object>> console = new ArrayDeque<>();
+    /** requestId -> request/response/finish events, oldest first */
+    private final LinkedHashMap<String, Map<String, Object>> network = new LinkedHashMap<>();
+
+    /**
+     * Start collecting if enabled and the driver speaks DevTools, otherwise null
+     */
+    public static FailureBundle startIfEnabled(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            FailureBundle bundle = new FailureBundle(driver);
+            bundle.listen(((HasDevTools) driver).getDevTools());
+            return bundle;
+        } catch (RuntimeException e) {
+            System.err.println("Failure bundle collection not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private FailureBundle(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    private void listen(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(event("Runtime.consoleAPICalled"), e -> addConsole("console", e));
+        devTools.addListener(event("Runtime.exceptionThrown"), e -> addConsole("exception", e));
+        devTools.addListener(event("Log.entryAdded"), e -> addConsole("log", e));
+        devTools.addListener(event("Network.requestWillBeSent"), e -> addNetwork("request", e));
+        devTools.addListener(event("Network.responseReceived"), e -> addNetwork("response", e));
+        devTools.addListener(event("Network.loadingFinished"), e -> addNetwork("finished", e));
+        devTools.addListener(event("Network.loadingFailed"), e -> addNetwork("failed", e));
+        devTools.send(new Command<Void>("Runtime.enable", Map.of()));
+        devTools.send(new Command<Void>("Log.enable", Map.of()));
+        devTools.send(new Command<Void>("Network.enable", Map.of()));
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private synchronized void addConsole(String kind, Map<String, Object> event) {
+        if (console.size() == CONSOLE_MAX) {
+            console.pollFirst();
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("kind", kind);
+        entry.put("received", System.currentTimeMillis());
+        entry.put("event", event);
+        console.addLast(entry);
+    }
+
+    private synchronized void addNetwork(String phase, Map<String, Object> event) {
+        Object requestId = event.get("requestId");
+        if (requestId == null) {
+            return;
+        }
+        Map<String, Object> entry = network.get(requestId.toString());
+        if (entry == null) {
+            if (!phase.equals("request")) {
+                return; // started before the ring was cleared or already evicted
+            }
+            if (network.size() == NETWORK_MAX) {
+                Iterator<String> oldest = network.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            entry = new LinkedHashMap<>();
+            network.put(requestId.toString(), entry);
+        }
+        entry.put(phase, event);
+    }
+
+    /**
+     * Forget everything collected so far (start of a test)
+     */
+    public synchronized void clear() {
+        console.clear();
+        network.clear();
+    }
+
+    /**
+     * Snapshot the rings and the DOM on the calling thread, write the zip in the background.
+     * Returns the zip path straight away.
+     */
+    public Path capture(String label) {
+        List<Map<String, Object>> consoleCopy;
+        List<Map<String, Object>> networkCopy;
+        synchronized (this) {
+            consoleCopy = new ArrayList<>(console);
+            networkCopy = new ArrayList<>(network.values());
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        String dom;
+        try {
+            page.put("url", driver.getCurrentUrl());
+            page.put("title", driver.getTitle());
+            dom = (String) ((JavascriptExecutor) driver).executeScript(
+                    "return '<!DOCTYPE html>\\n' + document.documentElement.outerHTML;");
+        } catch (RuntimeException e) {
+            page.put("domError", e.getMessage());
+            dom = "";
+        }
+        page.put("capturedAt", Instant.now().toString());
+        page.put("consoleEntries", consoleCopy.size());
+        page.put("networkEntries", networkCopy.size());
+
+        Path target = Artifacts.newFile(label, ".zip");
+        String domSnapshot = dom;
+        pending.incrementAndGet();
+        writer.execute(() -> {
+            try {
+                write(target, domSnapshot, consoleCopy, Har.build(networkCopy), page);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not write failure bundle " + target + ": " + e.getMessage());
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+        return target;
+    }
+
+    private static void write(Path target, String dom, List<Map<String, Object>> console,
+                              Map<String, Object> har, Map<String, Object> page) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp); ZipOutputStream zip = new ZipOutputStream(out)) {
+            entry(zip, "dom.html", dom.getBytes(StandardCharsets.UTF_8));
+            entry(zip, "console.json", mapper.writeValueAsBytes(console));
+            entry(zip, "network.har", mapper.writeValueAsBytes(har));
+            entry(zip, "page.json", mapper.writeValueAsBytes(page));
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void entry(ZipOutputStream zip, String name, byte[] bytes) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    /**
+     * Wait for bundles still being written (suite end)
+     */
+    public static boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * HAR 1.2 from the collected Network domain events
+     */
+    static final class Har {
+
+        private static final String REDACTED = "[redacted]";
+
+        @SuppressWarnings("unchecked")
+        static Map<String, Object> build(List<Map<String, Object>> requests) {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (Map<String, Object> events : requests) {
+                Map<String, Object> sent = (Map<String, Object>) events.get("request");
+                if (sent == null) {
+                    continue;
+                }
+                Map<String, Object> request = map(sent.get("request"));
+                Map<String, Object> responseEvent = (Map<String, Object>) events.get("response");
+                Map<String, Object> response = responseEvent == null ? Map.of() : map(responseEvent.get("response"));
+                Map<String, Object> finished = (Map<String, Object>) events.get("finished");
+                Map<String, Object> failed = (Map<String, Object>) events.get("failed");
+
+                double start = number(sent.get("timestamp"));
+                double headers = responseEvent == null ? start : number(responseEvent.get("timestamp"));
+                double end = finished != null ? number(finished.get("timestamp"))
+                        : failed != null ? number(failed.get("timestamp")) : headers;
+                long wallMillis = (long) (number(sent.get("wallTime")) * 1000);
+
+                Map<String, Object> harRequest = new LinkedHashMap<>();
+                harRequest.put("method", request.getOrDefault("method", "GET"));
+                harRequest.put("url", request.getOrDefault("url", ""));
+                harRequest.put("httpVersion", response.getOrDefault("protocol", "unknown"));
+                harRequest.put("cookies", List.of());
+                harRequest.put("headers", headers(request.get("headers")));
+                harRequest.put("queryString", List.of());
+                if (request.get("postData") != null) {
+                    harRequest.put("postData", Map.of("mimeType", contentType(request.get("headers")),
+                            "text", postData(String.valueOf(request.get("postData")))));
+                }
+                harRequest.put("headersSize", -1);
+                harRequest.put("bodySize", -1);
+
+                Map<String, Object> content = new LinkedHashMap<>();
+                long size = finished == null ? 0 : (long) number(finished.get("encodedDataLength"));
+                content.put("size", size);
+                content.put("mimeType", response.getOrDefault("mimeType", ""));
+
+                Map<String, Object> harResponse = new LinkedHashMap<>();
+                harResponse.put("status", response.containsKey("status") ? (int) number(response.get("status")) : 0);
+                harResponse.put("statusText", failed != null ? failed.getOrDefault("errorText", "") : response.getOrDefault("statusText", ""));
+                harResponse.put("httpVersion", response.getOrDefault("protocol", "unknown"));
+                harResponse.put("cookies", List.of());
+                harResponse.put("headers", headers(response.get("headers")));
+                harResponse.put("content", content);
+                harResponse.put("redirectURL", "");
+                harResponse.put("headersSize", -1);
+                harResponse.put("bodySize", size);
+
+                Map<String, Object> timings = new LinkedHashMap<>();
+                timings.put("send", 0);
+                timings.put("wait", Math.max(0, (headers - start) * 1000));
+                timings.put("receive", Math.max(0, (end - headers) * 1000));
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("startedDateTime", Instant.ofEpochMilli(wallMillis).toString());
+                entry.put("time", Math.max(0, (end - start) * 1000));
+                entry.put("request", harRequest);
+                entry.put("response", harResponse);
+                entry.put("cache", Map.of());
+                entry.put("timings", timings);
+                entry.put("_resourceType", sent.getOrDefault("type", ""));
+                entries.add(entry);
+            }
+
+            Map<String, Object> log = new LinkedHashMap<>();
+            log.put("version", "1.2");
+            log.put("creator", Map.of("name", "pinterest-automation", "version", "1.0"));
+            log.put("entries", entries);
+            return Map.of("log", log);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> map(Object value) {
+            return value instanceof Map ? (Map<String, Object>) value : Map.of();
+        }
+
+        private static List<Map<String, Object>> headers(Object value) {
+            List<Map<String, Object>> headers = new ArrayList<>();
+            for (Map.Entry<String, Object> header : map(value).entrySet()) {
+                String headerValue = String.valueOf(header.getValue());
+                if (!HAR_SECRETS && isSecretHeader(header.getKey())) {
+                    headerValue = REDACTED;
+                }
+                headers.add(Map.of("name", header.getKey(), "value", headerValue));
+            }
+            return headers;
+        }
+
+        static boolean isSecretHeader(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            return lower.equals("cookie") || lower.equals("set-cookie")
+                    || lower.equals("authorization") || lower.equals("proxy-authorization");
+        }
+
+        /**
+         * Form and JSON bodies hold credentials (login, signup, settings); only their size is kept
+         */
+        static String postData(String body) {
+            return HAR_SECRETS ? body : REDACTED + " (" + body.length() + " chars)";
+        }
+
+        private static String contentType(Object headers) {
+            for (Map.Entry<String, Object> header : map(headers).entrySet()) {
+                if (header.getKey().equalsIgnoreCase("content-type")) {
+                    return String.valueOf(header.getValue());
+                }
+            }
+            return "";
+        }
+
+        private static double number(Object value) {
+            return value instanceof Number ? ((Number) value).doubleValue() : 0;
+        }
+    }
+}
@@ -8,13 +8,23 @@ import java.io.IOException;
 
 public class JsonReader {
     private static JsonObject jsonObject;
+    private static TestDataSnapshot snapshot;
 
+    // Compiled snapshot first, JSON text as fallback
     static {
+        snapshot = TestDataSnapshot.loadFromClasspath();
+        if (snapshot == null) {
+            jsonObject = loadJson();
+        }
+    }
+
+    private static JsonObject loadJson() {
         try {
             String filePath = "src/test/resources/testdata/TestData.json";
             FileReader reader = new FileReader(filePath);
-            jsonObject = JsonParser.parseReader(reader).getAsJsonObject();
+            JsonObject parsed = JsonParser.parseReader(reader).getAsJsonObject();
             reader.close();
+            return parsed;
         } catch (IOException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to load JSON test data");
@@ -23,6 +33,14 @@ public class JsonReader {
 
     // Single parameter method for nested keys
     public static String get(String key) {
+        if (snapshot != null) {
+            String value = snapshot.jsonValue(key);
+            if (value == null) {
+                throw new RuntimeException("JSON test data key not found: " + key);
+            }
+            return value;
+        }
+        
         String[] keys = key.split("\\.");
         JsonObject current = jsonObject;
         
@@ -35,6 +53,9 @@ public class JsonReader {
 
     // Two parameter method (if you want to keep backward compatibility)
     public static String get(String parentKey, String childKey) {
+        if (snapshot != null) {
+            return get(parentKey + "." + childKey);
+        }
         JsonObject parent = jsonObject.getAsJsonObject(parentKey);
         return parent.get(childKey).getAsString();
     }
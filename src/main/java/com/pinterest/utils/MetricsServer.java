@@ -0,0 +1,258 @@
+package com.pinterest.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Live Prometheus-format metrics while the suite runs, on http://127.0.0.1:(metrics.port)/metrics:
+ *
+ *   pinterest_drivers_active, pinterest_driver_pool_size / _idle     browser sessions
+ *   pinterest_tests_running, pinterest_tests_total{status}           test progress
+ *   pinterest_step_duration_seconds{page,step}                        Span histogram per page object
+ *   pinterest_webdriver_command_seconds{command}                      summary (driver.metrics.enabled)
+ *   pinterest_screenshot_queue_depth, jvm_memory_heap_*_bytes
+ *
+ * metrics.enabled=true starts it; with several surefire forks each fork listens on metrics.port
+ * plus its fork number minus one. Nothing is recorded while disabled.
+ */
+public final class MetricsServer {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("metrics.enabled", false);
+    private static final int PORT = ConfigReader.getInt("metrics.port", 9464);
+
+    /** Step latency buckets (seconds), +Inf is implied */
+    private static final double[] BUCKETS = {0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private static final AtomicLong driversStarted = new AtomicLong();
+    private static final AtomicLong driversQuit = new AtomicLong();
+    private static final AtomicLong testsStarted = new AtomicLong();
+    private static final Map<String, AtomicLong> testsFinished = new ConcurrentHashMap<>();
+    private static final Map<String, StepHistogram> steps = new ConcurrentHashMap<>();
+
+    private static HttpServer server;
+
+    /**
+     * Cumulative-bucket histogram for one page object step
+     */
+    private static final class StepHistogram {
+        final String page;
+        final String step;
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS.length);
+        final AtomicLong count = new AtomicLong();
+        final DoubleAdder sum = new DoubleAdder();
+
+        StepHistogram(String page, String step) {
+            this.page = page;
+            this.step = step;
+        }
+
+        void observe(double seconds) {
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    buckets.incrementAndGet(i);
+                }
+            }
+            sum.add(seconds);
+            count.incrementAndGet();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start the endpoint if enabled (once per JVM). A port already in use only costs a warning.
+     */
+    public static synchronized void startIfEnabled() {
+        if (!ENABLED || server != null) {
+            return;
+        }
+        int port = PORT + (RunContext.isSharded() ? Math.max(0, Integer.getInteger("surefire.fork", 1) - 1) : 0);
+        try {
+            HttpServer created = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            created.createContext("/metrics", MetricsServer::handle);
+            created.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-server");
+                t.setDaemon(true);
+                return t;
+            }));
+            created.start();
+            server = created;
+            System.out.println("Live metrics on http://127.0.0.1:" + port + "/metrics");
+        } catch (IOException e) {
+            System.err.println("Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the endpoint (suite end)
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // ========== RECORDING ==========
+
+    public static void driverStarted() {
+        if (ENABLED) {
+            driversStarted.incrementAndGet();
+        }
+    }
+
+    public static void driverQuit() {
+        if (ENABLED) {
+            driversQuit.incrementAndGet();
+        }
+    }
+
+    public static void testStarted() {
+        if (ENABLED) {
+            testsStarted.incrementAndGet();
+        }
+    }
+
+    /**
+     * status: pass, fail or skip
+     */
+    public static void testFinished(String status) {
+        if (ENABLED) {
+            testsFinished.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Record a finished Span. Quoted arguments are dropped from the step name ("Search 'cats'"
+     * becomes "Search '*'") to keep one series per step rather than per query.
+     */
+    static void observeStep(String page, String step, long nanos) {
+        if (ENABLED) {
+            String name = step.replaceAll("'[^']*'", "'*'");
+            steps.computeIfAbsent(page + "\u0000" + name, k -> new StepHistogram(page, name))
+                    .observe(nanos / 1e9);
+        }
+    }
+
+    // ========== EXPOSITION ==========
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Current values in the Prometheus text exposition format
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder();
+
+        gauge(out, "pinterest_drivers_active", "Browser sessions started and not yet quit",
+                driversStarted.get() - driversQuit.get());
+        counter(out, "pinterest_drivers_started_total", "Browser sessions started", driversStarted.get());
+        long poolSize = 0;
+        long poolIdle = 0;
+        for (DriverPool pool : DriverPool.openPools()) {
+            poolSize += pool.getSize();
+            poolIdle += pool.getIdleCount();
+        }
+        gauge(out, "pinterest_driver_pool_size", "Sessions held by open driver pools", poolSize);
+        gauge(out, "pinterest_driver_pool_idle", "Pooled sessions waiting to be borrowed", poolIdle);
+
+        long finished = 0;
+        for (AtomicLong count : testsFinished.values()) {
+            finished += count.get();
+        }
+        gauge(out, "pinterest_tests_running", "Tests started and not finished", testsStarted.get() - finished);
+        header(out, "pinterest_tests_total", "Finished tests by status", "counter");
+        for (String status : new String[]{"pass", "fail", "skip"}) {
+            AtomicLong count = testsFinished.get(status);
+            out.append("pinterest_tests_total{status=\"").append(status).append("\"} ")
+                    .append(count == null ? 0 : count.get()).append('\n');
+        }
+
+        header(out, "pinterest_step_duration_seconds", "Page object step (Span) durations", "histogram");
+        for (StepHistogram h : new TreeMap<>(steps).values()) {
+            String labels = "page=\"" + escape(h.page) + "\",step=\"" + escape(h.step) + "\"";
+            for (int i = 0; i < BUCKETS.length; i++) {
+                out.append("pinterest_step_duration_seconds_bucket{").append(labels).append(",le=\"")
+                        .append(BUCKETS[i]).append("\"} ").append(h.buckets.get(i)).append('\n');
+            }
+            out.append("pinterest_step_duration_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ")
+                    .append(h.count.get()).append('\n');
+            out.append("pinterest_step_duration_seconds_sum{").append(labels).append("} ").append(h.sum.sum()).append('\n');
+            out.append("pinterest_step_duration_seconds_count{").append(labels).append("} ").append(h.count.get()).append('\n');
+        }
+
+        header(out, "pinterest_webdriver_command_seconds", "WebDriver command latency (driver.metrics.enabled)", "summary");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(CommandMetrics.commandHistograms()).entrySet()) {
+            String labels = "command=\"" + escape(entry.getKey()) + "\"";
+            Histogram h = entry.getValue();
+            synchronized (h) {
+                for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+                    out.append("pinterest_webdriver_command_seconds{").append(labels).append(",quantile=\"")
+                            .append(quantile).append("\"} ").append(h.getValueAtPercentile(quantile * 100) / 1e6).append('\n');
+                }
+                out.append("pinterest_webdriver_command_seconds_sum{").append(labels).append("} ")
+                        .append(h.getMean() * h.getTotalCount() / 1e6).append('\n');
+                out.append("pinterest_webdriver_command_seconds_count{").append(labels).append("} ")
+                        .append(h.getTotalCount()).append('\n');
+            }
+        }
+
+        gauge(out, "pinterest_screenshot_queue_depth", "Screenshots waiting for a writer thread",
+                ScreenshotService.getQueueDepth());
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gauge(out, "jvm_memory_heap_used_bytes", "JVM heap in use", heap.getUsed());
+        gauge(out, "jvm_memory_heap_committed_bytes", "JVM heap committed", heap.getCommitted());
+        gauge(out, "jvm_memory_heap_max_bytes", "JVM heap limit (-1 if undefined)", heap.getMax());
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private MetricsServer() {}
+}
@@ -0,0 +1,217 @@
+package com.pinterest.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Run-over-run timing history and regression check.
+ *
+ * Durations of passing tests and of their steps (Span paths) are kept in
+ * target/perf-history/history.tsv, one "runId key ms" line each, trimmed to the newest
+ * perf.history.runs runs per key. A new duration is compared with the baseline of earlier runs
+ * by median and MAD: it is a regression when it is at least perf.threshold.pct above the median,
+ * perf.min.delta.ms slower in absolute terms and more than perf.z robust standard deviations out.
+ * At least perf.min.samples earlier runs are needed before a key is judged.
+ *
+ *   perf.gate=off|warn|fail   warn lists regressions in the report, fail also fails the test
+ */
+public final class PerfHistory {
+
+    private static final String GATE = ConfigReader.get("perf.gate", "warn").trim().toLowerCase();
+    private static final int HISTORY_RUNS = ConfigReader.getInt("perf.history.runs", 20);
+    private static final int MIN_SAMPLES = ConfigReader.getInt("perf.min.samples", 5);
+    private static final double THRESHOLD_PCT = Double.parseDouble(ConfigReader.get("perf.threshold.pct", "25"));
+    private static final long MIN_DELTA_MS = ConfigReader.getInt("perf.min.delta.ms", 250);
+    private static final double Z = Double.parseDouble(ConfigReader.get("perf.z", "3"));
+
+    private static final Path DIR = Paths.get(System.getProperty("user.dir"), "target", "perf-history");
+    private static final Path HISTORY = DIR.resolve("history.tsv");
+    private static final String LOCK_FILE = ".history.lock";
+
+    /** key -> durations of earlier runs, oldest first; loaded on first use */
+    private static Map<String, long[]> baseline;
+    private static final Map<String, List<Long>> current = new ConcurrentHashMap<>();
+    private static final List<Regression> regressions = new CopyOnWriteArrayList<>();
+
+    /**
+     * A duration that fell outside its baseline
+     */
+    public static final class Regression {
+        private final String key;
+        private final long baselineMedianMs;
+        private final long currentMs;
+        private final double z;
+        private final int samples;
+
+        Regression(String key, long baselineMedianMs, long currentMs, double z, int samples) {
+            this.key = key;
+            this.baselineMedianMs = baselineMedianMs;
+            this.currentMs = currentMs;
+            this.z = z;
+            this.samples = samples;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getChangePct() {
+            return baselineMedianMs == 0 ? 0 : 100.0 * (currentMs - baselineMedianMs) / baselineMedianMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ms vs median %d ms (+%.0f%%, z=%.1f, %d runs)",
+                    key, currentMs, baselineMedianMs, getChangePct(), z, samples);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return !GATE.equals("off");
+    }
+
+    public static boolean isFailMode() {
+        return GATE.equals("fail");
+    }
+
+    /**
+     * Keep a duration of this run and compare it with the baseline; returns the regression or null
+     */
+    public static Regression record(String key, long durationMs) {
+        if (!isEnabled()) {
+            return null;
+        }
+        current.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(durationMs);
+        Regression regression = compare(key, durationMs, baseline().get(key));
+        if (regression != null) {
+            regressions.add(regression);
+        }
+        return regression;
+    }
+
+    static Regression compare(String key, long durationMs, long[] history) {
+        if (history == null || history.length < MIN_SAMPLES) {
+            return null;
+        }
+        long[] sorted = history.clone();
+        Arrays.sort(sorted);
+        double median = median(sorted);
+        long[] deviations = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            deviations[i] = Math.abs(sorted[i] - Math.round(median));
+        }
+        Arrays.sort(deviations);
+        // 1.4826 * MAD estimates the standard deviation for normal data; floor it at 1 ms
+        double sigma = Math.max(1, 1.4826 * median(deviations));
+        double z = (durationMs - median) / sigma;
+
+        boolean slower = durationMs >= median * (1 + THRESHOLD_PCT / 100) && durationMs - median >= MIN_DELTA_MS;
+        if (slower && z > Z) {
+            return new Regression(key, Math.round(median), durationMs, z, history.length);
+        }
+        return null;
+    }
+
+    private static double median(long[] sorted) {
+        int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2.0;
+    }
+
+    /**
+     * Regressions of this run, largest relative change first
+     */
+    public static List<Regression> worstOffenders(int limit) {
+        List<Regression> sorted = new ArrayList<>(regressions);
+        sorted.sort((a, b) -> Double.compare(b.getChangePct(), a.getChangePct()));
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private static synchronized Map<String, long[]> baseline() {
+        if (baseline == null) {
+            baseline = new HashMap<>();
+            try {
+                Map<String, List<Long>> loaded = new HashMap<>();
+                for (String[] line : read()) {
+                    loaded.computeIfAbsent(line[1], k -> new ArrayList<>()).add(Long.parseLong(line[2]));
+                }
+                for (Map.Entry<String, List<Long>> e : loaded.entrySet()) {
+                    baseline.put(e.getKey(), e.getValue().stream().mapToLong(Long::longValue).toArray());
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Ignoring unreadable perf history " + HISTORY + ": " + e.getMessage());
+            }
+        }
+        return baseline;
+    }
+
+    private static List<String[]> read() throws IOException {
+        List<String[]> lines = new ArrayList<>();
+        if (!Files.exists(HISTORY)) {
+            return lines;
+        }
+        for (String line : Files.readAllLines(HISTORY, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t");
+            if (parts.length == 3) {
+                lines.add(parts);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Add this run (median per key when a test ran more than once) and trim each key to the
+     * newest perf.history.runs runs. Forks share the file, so this runs under a file lock.
+     */
+    public static synchronized void save() {
+        if (!isEnabled() || current.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(DIR);
+            try (FileChannel channel = FileChannel.open(DIR.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, List<String>> byKey = new LinkedHashMap<>();
+                for (String[] line : read()) {
+                    byKey.computeIfAbsent(line[1], k -> new ArrayList<>()).add(String.join("\t", line));
+                }
+                String runId = RunContext.runId() + (RunContext.isSharded() ? "/" + RunContext.shardId() : "");
+                for (Map.Entry<String, List<Long>> e : current.entrySet()) {
+                    long[] values = e.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+                    byKey.computeIfAbsent(e.getKey(), k -> new ArrayList<>())
+                            .add(runId + "\t" + e.getKey() + "\t" + Math.round(median(values)));
+                }
+
+                StringBuilder out = new StringBuilder();
+                for (List<String> lines : byKey.values()) {
+                    for (String line : lines.subList(Math.max(0, lines.size() - HISTORY_RUNS), lines.size())) {
+                        out.append(line).append('\n');
+                    }
+                }
+                Path tmp = DIR.resolve("history.tsv.tmp");
+                Files.write(tmp, out.toString().getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, HISTORY, StandardCopyOption.REPLACE_EXISTING);
+            }
+            current.clear();
+        } catch (IOException e) {
+            System.err.println("Could not save perf history " + HISTORY + ": " + e.getMessage());
+        }
+    }
+
+    private PerfHistory() {}
+}
@@ -0,0 +1,134 @@
+package com.pinterest.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Single background writer for the Extent report.
+ *
+ * Test threads only mark the report dirty; the writer thread re-renders at most once per
+ * interval (and once more at suite end). Spark renders into a partial file that is then
+ * renamed over the real report, so readers never see a half-written HTML file.
+ *
+ * The writer thread is also the only one that changes the Extent model: test threads queue their
+ * changes (see ExtentManager.publish) and the writer applies them right before rendering, so
+ * Spark never reads a model another thread is changing and no test thread ever waits for a render.
+ */
+public class ReportFlusher {
+
+    private final ExtentReports extent;
+    private final Path partialReport;
+    private final Path report;
+    private final ScheduledExecutorService writer;
+    private final Queue<Consumer<ExtentReports>> updates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile long flushCount;
+
+    public ReportFlusher(ExtentReports extent, Path partialReport, Path report, Duration interval) {
+        this.extent = extent;
+        this.partialReport = partialReport;
+        this.report = report;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "extent-report-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = Math.max(interval.toMillis(), 100);
+        writer.scheduleWithFixedDelay(this::flushIfDirty, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Non-blocking: coalesces with any other request made before the next write
+     */
+    public void requestFlush() {
+        dirty.set(true);
+    }
+
+    /**
+     * Queue a change to the report model; applied on the writer thread before the next render
+     */
+    public void update(Consumer<ExtentReports> change) {
+        updates.add(change);
+        dirty.set(true);
+    }
+
+    /**
+     * Write now on the writer thread and wait for it (suite end)
+     */
+    public void flushNow() {
+        dirty.set(true);
+        if (writer.isShutdown()) {
+            return;
+        }
+        try {
+            writer.submit(this::flushIfDirty).get(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Extent report flush did not complete: " + e);
+        }
+    }
+
+    /**
+     * Final write, then stop the writer thread
+     */
+    public void shutdown() {
+        flushNow();
+        writer.shutdown();
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    private void flushIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        long start = System.nanoTime();
+        Consumer<ExtentReports> change;
+        while ((change = updates.poll()) != null) {
+            try {
+                change.accept(extent);
+            } catch (RuntimeException e) {
+                System.err.println("Could not apply a report update: " + e);
+            }
+        }
+        try {
+            extent.flush();
+            publish();
+            flushCount++;
+            Timeline.record("Report flush", "report", start, System.nanoTime(), null);
+        } catch (RuntimeException e) {
+            System.err.println("Extent report flush failed: " + e); // keep the scheduled writer alive
+        } catch (IOException e) {
+            System.err.println("Could not publish Extent report " + report + ": " + e.getMessage());
+        }
+    }
+
+    private void publish() throws IOException {
+        if (!Files.exists(partialReport)) {
+            return;
+        }
+        try {
+            Files.move(partialReport, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partialReport, report, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.pinterest.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the per-JVM journal shards of one run (shard-*.jsonl) into a single timeline.
+ *
+ * Shards are k-way merged by timestamp, one buffered line per shard in memory, into
+ * merged.jsonl (each event tagged with its shard). Per-shard utilization (wall time, time with
+ * at least one test running, summed test time) is computed on the way through, written to
+ * shards.csv, and the merged run is then rendered by ReportRenderer.
+ *
+ * Usage: ReportMerger [run directory | results directory] [output directory]
+ */
+public class ReportMerger {
+
+    public static final String MERGED_FILE = "merged.jsonl";
+    private static final String SHARD_PREFIX = "shard-";
+
+    /**
+     * One open shard and its next (not yet written) event
+     */
+    private static final class Cursor {
+        final String shard;
+        final BufferedReader reader;
+        ObjectNode event;
+        long ts;
+
+        Cursor(String shard, BufferedReader reader) {
+            this.shard = shard;
+            this.reader = reader;
+        }
+    }
+
+    /**
+     * Utilization of one shard, accumulated while its events stream past
+     */
+    public static final class ShardStats {
+        public final String shard;
+        public long firstTs = Long.MAX_VALUE;
+        public long lastTs = Long.MIN_VALUE;
+        public int tests;
+        public long testMs;
+        public long busyMs;
+        private int running;
+        private long busySince;
+
+        ShardStats(String shard) {
+            this.shard = shard;
+        }
+
+        void accept(String type, long ts) {
+            firstTs = Math.min(firstTs, ts);
+            lastTs = Math.max(lastTs, ts);
+            if (type.equals("test_start")) {
+                if (running++ == 0) {
+                    busySince = ts;
+                }
+            } else if (type.equals("test_end") && running > 0) {
+                tests++;
+                if (--running == 0) {
+                    busyMs += ts - busySince;
+                }
+            }
+        }
+
+        public long wallMs() {
+            return lastTs > firstTs ? lastTs - firstTs : 0;
+        }
+
+        public double utilization() {
+            return wallMs() == 0 ? 0 : (double) busyMs / wallMs();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input = args.length > 0 ? Paths.get(args[0]) : Paths.get("test-output", "results");
+        Path runDir = shards(input).isEmpty() ? ReportRenderer.newestRun(input) : input;
+        if (runDir == null || shards(runDir).isEmpty()) {
+            throw new RuntimeException("No journal shards (" + SHARD_PREFIX + "*.jsonl) under " + input.toAbsolutePath());
+        }
+        Path outputDir = args.length > 1 ? Paths.get(args[1]) : runDir;
+
+        Path merged = runDir.resolve(MERGED_FILE);
+        List<ShardStats> stats = merge(shards(runDir), merged);
+        writeStats(stats, outputDir.resolve("shards.csv"));
+        printStats(stats);
+
+        ReportRenderer.render(ReportRenderer.read(List.of(merged)), outputDir, ReportRenderer.defaultSinks());
+    }
+
+    static List<Path> shards(Path runDir) throws IOException {
+        if (!Files.isDirectory(runDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(runDir)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SHARD_PREFIX) && name.endsWith(".jsonl");
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Stream all shards into target in timestamp order; returns per-shard stats
+     */
+    public static List<ShardStats> merge(List<Path> shards, Path target) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, ShardStats> stats = new LinkedHashMap<>();
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(
+                Comparator.comparingLong((Cursor c) -> c.ts).thenComparing(c -> c.shard));
+        List<Cursor> open = new ArrayList<>();
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Path shard : shards) {
+                String name = shard.getFileName().toString();
+                name = name.substring(SHARD_PREFIX.length(), name.length() - ".jsonl".length());
+                Cursor cursor = new Cursor(name, Files.newBufferedReader(shard, StandardCharsets.UTF_8));
+                open.add(cursor);
+                stats.put(name, new ShardStats(name));
+                if (advance(cursor, mapper)) {
+                    queue.add(cursor);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                ObjectNode event = cursor.event;
+                event.put("shard", cursor.shard);
+                stats.get(cursor.shard).accept(event.path("type").asText(), cursor.ts);
+                out.write(mapper.writeValueAsString(event));
+                out.write('\n');
+                if (advance(cursor, mapper)) {
+                    queue.add(cursor);
+                }
+            }
+        } finally {
+            for (Cursor cursor : open) {
+                cursor.reader.close();
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        return new ArrayList<>(stats.values());
+    }
+
+    private static boolean advance(Cursor cursor, ObjectMapper mapper) throws IOException {
+        String line;
+        while ((line = cursor.reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                cursor.event = (ObjectNode) mapper.readTree(line);
+            } catch (IOException | ClassCastException e) {
+                // A fork killed mid-write leaves a torn last line; skip it
+                System.err.println("Skipping unreadable line in shard " + cursor.shard + ": " + e.getMessage());
+                continue;
+            }
+            cursor.ts = cursor.event.path("ts").asLong();
+            return true;
+        }
+        return false;
+    }
+
+    private static void writeStats(List<ShardStats> stats, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("shard,start,end,wallMs,busyMs,utilization,tests\n");
+            for (ShardStats s : stats) {
+                out.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.3f,%d%n",
+                        s.shard, s.firstTs, s.lastTs, s.wallMs(), s.busyMs, s.utilization(), s.tests));
+            }
+        }
+    }
+
+    private static void printStats(List<ShardStats> stats) {
+        System.out.println(String.format("%-16s %10s %10s %7s %6s", "Shard", "Wall ms", "Busy ms", "Util", "Tests"));
+        for (ShardStats s : stats) {
+            System.out.println(String.format(Locale.ROOT, "%-16s %10d %10d %6.0f%% %6d",
+                    s.shard, s.wallMs(), s.busyMs, s.utilization() * 100, s.tests));
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.pinterest.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Post-run report rendering from ResultsJournal files.
+ *
+ * Reads every *.jsonl journal of a run once, rebuilds the tests, then lets each ReportSink
+ * (Extent HTML, JUnit XML, CSV summary) write its output in parallel.
+ *
+ * Usage: ReportRenderer [journal file | run directory | results directory] [output directory]
+ * A results directory (test-output/results) renders its most recent run. A run directory with
+ * a merged.jsonl (see ReportMerger) renders that instead of its shards.
+ */
+public class ReportRenderer {
+
+    /**
+     * One output format rendered from the rebuilt run
+     */
+    public interface ReportSink {
+        String name();
+
+        void render(List<TestRecord> tests, Path outputDir) throws IOException;
+    }
+
+    public static final class Step {
+        public final long ts;
+        public final String status;
+        public final String details;
+        public final String node;
+
+        Step(long ts, String status, String details, String node) {
+            this.ts = ts;
+            this.status = status;
+            this.details = details;
+            this.node = node;
+        }
+    }
+
+    public static final class SpanRecord {
+        public final String path;
+        public final long start;
+        public final long durationMs;
+
+        SpanRecord(String path, long start, long durationMs) {
+            this.path = path;
+            this.start = start;
+            this.durationMs = durationMs;
+        }
+    }
+
+    public static final class Artifact {
+        public final long ts;
+        public final String path;
+        public final String kind;
+        public final long captureMs;
+
+        Artifact(long ts, String path, String kind, long captureMs) {
+            this.ts = ts;
+            this.path = path;
+            this.kind = kind;
+            this.captureMs = captureMs;
+        }
+    }
+
+    /**
+     * Everything the journal recorded about one test invocation
+     */
+    public static final class TestRecord {
+        public final String id;
+        public String name = "";
+        public String className = "";
+        public String method = "";
+        public String thread = "";
+        public String shard;
+        public long start;
+        public long end;
+        public String status = "UNKNOWN";
+        public String error;
+        public long reportedDurationMs = -1;
+        public final List<Step> steps = new ArrayList<>();
+        public final List<Artifact> artifacts = new ArrayList<>();
+        public final List<SpanRecord> spans = new ArrayList<>();
+
+        TestRecord(String id) {
+            this.id = id;
+        }
+
+        public long durationMs() {
+            if (reportedDurationMs >= 0) {
+                return reportedDurationMs;
+            }
+            return end > start ? end - start : 0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input = args.length > 0 ? Paths.get(args[0]) : Paths.get("test-output", "results");
+        List<Path> journals = journals(input);
+        if (journals.isEmpty()) {
+            throw new RuntimeException("No results journal found under " + input.toAbsolutePath());
+        }
+        Path outputDir = args.length > 1 ? Paths.get(args[1]) : journals.get(0).getParent();
+
+        List<TestRecord> tests = read(journals);
+        System.out.println("Rendering " + tests.size() + " tests from " + journals.size() + " journal(s) into " + outputDir);
+        render(tests, outputDir, defaultSinks());
+    }
+
+    public static List<ReportSink> defaultSinks() {
+        List<ReportSink> sinks = new ArrayList<>();
+        sinks.add(new ExtentHtmlSink());
+        sinks.add(new JUnitXmlSink());
+        sinks.add(new CsvSummarySink());
+        return sinks;
+    }
+
+    /**
+     * Run every sink on its own thread; fails if any of them fails
+     */
+    public static void render(List<TestRecord> tests, Path outputDir, List<ReportSink> sinks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(sinks.size());
+        try {
+            Map<String, Future<Object>> results = new LinkedHashMap<>();
+            for (ReportSink sink : sinks) {
+                Callable<Object> task = () -> {
+                    long start = System.nanoTime();
+                    sink.render(tests, outputDir);
+                    System.out.println("  " + sink.name() + " written in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    return null;
+                };
+                results.put(sink.name(), executor.submit(task));
+            }
+            List<String> failed = new ArrayList<>();
+            for (Map.Entry<String, Future<Object>> result : results.entrySet()) {
+                try {
+                    result.getValue().get();
+                } catch (ExecutionException e) {
+                    failed.add(result.getKey() + ": " + e.getCause());
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new RuntimeException("Report rendering failed: " + failed);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A single journal, every *.jsonl of a run directory, or the newest run under a results directory
+     */
+    public static List<Path> journals(Path input) throws IOException {
+        if (Files.isRegularFile(input)) {
+            return List.of(input);
+        }
+        if (!Files.isDirectory(input)) {
+            return List.of();
+        }
+        List<Path> here = listJournals(input);
+        if (!here.isEmpty()) {
+            return here;
+        }
+        Path newest = newestRun(input);
+        return newest == null ? List.of() : listJournals(newest);
+    }
+
+    /**
+     * Most recently modified run directory under a results directory
+     */
+    public static Path newestRun(Path resultsDir) throws IOException {
+        try (Stream<Path> runs = Files.list(resultsDir)) {
+            return runs.filter(Files::isDirectory)
+                    .max(Comparator.comparingLong(ReportRenderer::lastModified))
+                    .orElse(null);
+        }
+    }
+
+    private static List<Path> listJournals(Path dir) throws IOException {
+        Path merged = dir.resolve(ReportMerger.MERGED_FILE);
+        if (Files.isRegularFile(merged)) {
+            return List.of(merged);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jsonl"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Rebuild tests from journal lines, in start order
+     */
+    public static List<TestRecord> read(List<Path> journals) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, TestRecord> tests = new LinkedHashMap<>();
+        for (Path journal : journals) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        apply(tests, mapper.readTree(line));
+                    }
+                }
+            }
+        }
+        List<TestRecord> ordered = new ArrayList<>(tests.values());
+        ordered.sort(Comparator.comparingLong(t -> t.start));
+        return ordered;
+    }
+
+    static void apply(Map<String, TestRecord> tests, JsonNode event) {
+        String type = event.path("type").asText();
+        String id = event.path("test").asText(null);
+        if (id == null) {
+            return; // run_start / run_end and other run level events
+        }
+        String shard = event.path("shard").asText(null);
+        TestRecord test = tests.computeIfAbsent(shard == null ? id : shard + "/" + id, TestRecord::new);
+        long ts = event.path("ts").asLong();
+        switch (type) {
+            case "test_start":
+                test.name = event.path("name").asText();
+                test.className = event.path("class").asText();
+                test.method = event.path("method").asText();
+                test.thread = event.path("thread").asText();
+                test.shard = shard;
+                test.start = ts;
+                break;
+            case "step":
+                test.steps.add(new Step(event.path("stepTs").asLong(ts), event.path("status").asText("info"),
+                        event.path("details").asText(""), event.path("node").asText(null)));
+                break;
+            case "span":
+                test.spans.add(new SpanRecord(event.path("path").asText(), event.path("start").asLong(ts),
+                        event.path("durationMs").asLong()));
+                break;
+            case "artifact":
+                test.artifacts.add(new Artifact(ts, event.path("path").asText(), event.path("kind").asText(),
+                        event.path("captureMs").asLong()));
+                break;
+            case "test_end":
+                test.end = ts;
+                test.status = event.path("status").asText(test.status);
+                test.error = event.path("error").asText(null);
+                test.reportedDurationMs = event.path("durationMs").asLong(-1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Extent Spark HTML, same look as the live report
+     */
+    static final class ExtentHtmlSink implements ReportSink {
+        @Override
+        public String name() {
+            return "Extent HTML";
+        }
+
+        @Override
+        public void render(List<TestRecord> tests, Path outputDir) throws IOException {
+            Files.createDirectories(outputDir);
+            ExtentSparkReporter spark = new ExtentSparkReporter(outputDir.resolve("ExtentReport.html").toString());
+            spark.config().setReportName("Automation Test Report");
+            spark.config().setDocumentTitle("Test Execution Report");
+            spark.config().setTheme(Theme.DARK);
+
+            ExtentReports extent = new ExtentReports();
+            extent.attachReporter(spark);
+            extent.setSystemInfo("Project", "Pinterest Automation");
+            extent.setSystemInfo("Environment", "QA");
+
+            for (TestRecord record : tests) {
+                ExtentTest test = extent.createTest(record.name).assignCategory(record.className);
+                if (record.shard != null) {
+                    test.assignDevice(record.shard);
+                }
+                test.getModel().setStartTime(new Date(record.start));
+                Map<String, ExtentTest> spanNodes = new TreeMap<>();
+                for (SpanRecord span : record.spans) {
+                    // Parents are journaled before their children
+                    int cut = span.path.lastIndexOf(';');
+                    ExtentTest parent = cut < 0 ? test : spanNodes.getOrDefault(span.path.substring(0, cut), test);
+                    ExtentTest node = parent.createNode(span.path.substring(cut + 1) + " (" + span.durationMs + " ms)");
+                    node.getModel().setStartTime(new Date(span.start));
+                    node.getModel().setEndTime(new Date(span.start + span.durationMs));
+                    spanNodes.put(span.path, node);
+                }
+                Map<String, ExtentTest> nodes = new TreeMap<>();
+                for (Step step : record.steps) {
+                    ExtentTest target = step.node == null ? test
+                            : nodes.computeIfAbsent(step.node, test::createNode);
+                    target.log(status(step.status), step.details);
+                    List<Log> logs = target.getModel().getLogs();
+                    logs.get(logs.size() - 1).setTimestamp(new Date(step.ts));
+                }
+                for (Artifact artifact : record.artifacts) {
+                    if (FailureBundle.KIND.equals(artifact.kind)) {
+                        test.info("Failure bundle (DOM, console, HAR): <a href='" + artifact.path + "'>"
+                                + Paths.get(artifact.path).getFileName() + "</a>");
+                        continue;
+                    }
+                    test.info(artifact.kind + " captured in " + artifact.captureMs + " ms",
+                            MediaEntityBuilder.createScreenCaptureFromPath(artifact.path).build());
+                }
+                if (record.steps.isEmpty()) {
+                    test.log(status(record.status), record.error == null ? record.status : record.error);
+                }
+                test.getModel().setEndTime(new Date(Math.max(record.end, record.start)));
+            }
+            extent.flush();
+        }
+
+        private static Status status(String name) {
+            try {
+                return Status.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return Status.INFO;
+            }
+        }
+    }
+
+    /**
+     * JUnit XML (one testsuite per test class) for CI test result views
+     */
+    static final class JUnitXmlSink implements ReportSink {
+        @Override
+        public String name() {
+            return "JUnit XML";
+        }
+
+        @Override
+        public void render(List<TestRecord> tests, Path outputDir) throws IOException {
+            Map<String, List<TestRecord>> byClass = new TreeMap<>();
+            for (TestRecord test : tests) {
+                byClass.computeIfAbsent(test.className, c -> new ArrayList<>()).add(test);
+            }
+
+            Files.createDirectories(outputDir);
+            try (BufferedWriter out = Files.newBufferedWriter(outputDir.resolve("junit.xml"), StandardCharsets.UTF_8)) {
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuites>\n");
+                for (Map.Entry<String, List<TestRecord>> suite : byClass.entrySet()) {
+                    List<TestRecord> cases = suite.getValue();
+                    long failures = cases.stream().filter(t -> t.status.equals("fail")).count();
+                    long skipped = cases.stream().filter(t -> t.status.equals("skip")).count();
+                    double time = cases.stream().mapToLong(TestRecord::durationMs).sum() / 1000.0;
+                    out.write(String.format(Locale.ROOT,
+                            "  <testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" skipped=\"%d\" time=\"%.3f\">%n",
+                            xml(suite.getKey()), cases.size(), failures, skipped, time));
+                    for (TestRecord test : cases) {
+                        out.write(String.format(Locale.ROOT, "    <testcase name=\"%s\" classname=\"%s\" time=\"%.3f\"",
+                                xml(test.method), xml(test.className), test.durationMs() / 1000.0));
+                        if (test.status.equals("fail")) {
+                            String error = test.error == null ? "Test failed" : test.error;
+                            out.write(">\n      <failure message=\"" + xml(error) + "\"/>\n    </testcase>\n");
+                        } else if (test.status.equals("skip")) {
+                            out.write(">\n      <skipped/>\n    </testcase>\n");
+                        } else {
+                            out.write("/>\n");
+                        }
+                    }
+                    out.write("  </testsuite>\n");
+                }
+                out.write("</testsuites>\n");
+            }
+        }
+
+        private static String xml(String value) {
+            return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                    .replace("\"", "&quot;").replace("'", "&apos;");
+        }
+    }
+
+    /**
+     * One row per test for spreadsheets and quick diffing between runs
+     */
+    static final class CsvSummarySink implements ReportSink {
+        @Override
+        public String name() {
+            return "CSV summary";
+        }
+
+        @Override
+        public void render(List<TestRecord> tests, Path outputDir) throws IOException {
+            Files.createDirectories(outputDir);
+            try (BufferedWriter out = Files.newBufferedWriter(outputDir.resolve("summary.csv"), StandardCharsets.UTF_8)) {
+                out.write("id,class,method,status,start,durationMs,steps,artifacts,shard,thread,error\n");
+                for (TestRecord test : tests) {
+                    out.write(String.join(",", csv(test.id), csv(test.className), csv(test.method), csv(test.status),
+                            String.valueOf(test.start), String.valueOf(test.durationMs()),
+                            String.valueOf(test.steps.size()), String.valueOf(test.artifacts.size()),
+                            csv(test.shard == null ? "" : test.shard), csv(test.thread), csv(test.error == null ? "" : test.error)));
+                    out.write("\n");
+                }
+            }
+        }
+
+        private static String csv(String value) {
+            if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.pinterest.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only JSON-lines journal of test events (run/test start and end, steps, artifacts).
+ *
+ * Each event is one line: {"ts":..., "type":..., "thread":..., ...fields}. Appends are copied
+ * into an in-memory buffer and written to a FileChannel when it fills; a background thread
+ * drains and fsyncs it every journal.sync.interval.ms. Reports are rendered from the journal
+ * after the run by ReportRenderer, so the test JVM only pays for the appends.
+ */
+public class ResultsJournal implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static ResultsJournal instance;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ScheduledExecutorService syncer;
+    private boolean closed;
+
+    /**
+     * The journal of this JVM, opened on first use and closed by a shutdown hook
+     */
+    public static synchronized ResultsJournal get() {
+        if (instance == null) {
+            Duration interval = Duration.ofMillis(ConfigReader.getInt("journal.sync.interval.ms", 1000));
+            try {
+                instance = new ResultsJournal(defaultPath(), interval);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not open results journal " + defaultPath(), e);
+            }
+            instance.append("run_start", fields("run", RunContext.runId(), "shard", RunContext.shardId(),
+                    "pid", ProcessHandle.current().pid(),
+                    "cores", Runtime.getRuntime().availableProcessors()));
+            ResultsJournal journal = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "results-journal-close"));
+        }
+        return instance;
+    }
+
+    /**
+     * test-output/results/(runId)/shard-(shardId).jsonl, one shard per JVM of the run
+     */
+    public static Path defaultPath() {
+        return runDirectory().resolve("shard-" + RunContext.shardId() + ".jsonl");
+    }
+
+    public static Path runDirectory() {
+        return Paths.get(System.getProperty("user.dir"), "test-output", "results", RunContext.runId());
+    }
+
+    public ResultsJournal(Path file, Duration syncInterval) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "results-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = Math.max(syncInterval.toMillis(), 50);
+        syncer.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Build an ordered field map from key/value pairs; null values are left out
+     */
+    public static Map<String, Object> fields(Object... keysAndValues) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            if (keysAndValues[i + 1] != null) {
+                fields.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Append one event. Never throws: a broken journal must not fail the test that wrote to it.
+     */
+    public void append(String type, Map<String, Object> fields) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("ts", System.currentTimeMillis());
+        event.put("type", type);
+        event.put("thread", Thread.currentThread().getName());
+        event.putAll(fields);
+
+        byte[] line;
+        try {
+            line = mapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialise journal event " + type + ": " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                if (line.length + 1 > buffer.remaining()) {
+                    drain();
+                }
+                if (line.length + 1 > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(line));
+                    writeFully(ByteBuffer.wrap(new byte[]{'\n'}));
+                } else {
+                    buffer.put(line).put((byte) '\n');
+                }
+            } catch (IOException e) {
+                System.err.println("Could not append to results journal " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write out buffered events and fsync
+     */
+    public synchronized void sync() throws IOException {
+        if (closed) {
+            return;
+        }
+        drain();
+        channel.force(false);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        append("run_end", fields("run", RunContext.runId(), "shard", RunContext.shardId()));
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                drain();
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Could not close results journal " + file + ": " + e.getMessage());
+            }
+            closed = true;
+        }
+        syncer.shutdown();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Results journal sync failed: " + e.getMessage());
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.pinterest.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Keeps test-output/ bounded: the newest retention.max.runs runs and at most retention.max.mb
+ * stay as they are, older runs are compacted into test-output/archive/(runId).zip, and
+ * screenshot blobs no report links to any more are pruned.
+ *
+ * Works from test-output/retention-index.tsv, one line per finished JVM of a run:
+ *   runId, shard, ended (epoch ms), bytes (each screenshot blob once), state (live|archived), files (| separated, relative)
+ * Each JVM appends its line at shutdown; enforcement at the next start reads only the index.
+ * Reports and screenshots from before the index existed are picked up by a one-time scan.
+ */
+public final class RetentionManager {
+
+    private static final String INDEX_FILE = "retention-index.tsv";
+    private static final String LOCK_FILE = ".retention.lock";
+    private static final String ARCHIVE_DIR = "archive";
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("retention.enabled", true);
+    private static final int MAX_RUNS = ConfigReader.getInt("retention.max.runs", 10);
+    private static final long MAX_BYTES = ConfigReader.getInt("retention.max.mb", 500) * 1024L * 1024L;
+    private static final int MAX_ARCHIVES = ConfigReader.getInt("retention.max.archives", 30);
+
+    private static final RetentionManager DEFAULT = new RetentionManager(
+            Paths.get(System.getProperty("user.dir"), "test-output"), Paths.get(ExtentManager.getScreenshotDir()),
+            MAX_RUNS, MAX_BYTES);
+
+    private final Path root;
+    private final Path screenshots;
+    private final int maxRuns;
+    private final long maxBytes;
+
+    RetentionManager(Path root, Path screenshots, int maxRuns, long maxBytes) {
+        this.root = root;
+        this.screenshots = screenshots;
+        this.maxRuns = maxRuns;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * One line of the index
+     */
+    static final class Entry {
+        final String runId;
+        final String shard;
+        final long ended;
+        final long bytes;
+        String state;
+        final List<String> files;
+
+        Entry(String runId, String shard, long ended, long bytes, String state, List<String> files) {
+            this.runId = runId;
+            this.shard = shard;
+            this.ended = ended;
+            this.bytes = bytes;
+            this.state = state;
+            this.files = files;
+        }
+
+        static Entry parse(String line) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length != 6) {
+                return null;
+            }
+            try {
+                List<String> files = parts[5].isEmpty() ? new ArrayList<>() : new ArrayList<>(List.of(parts[5].split("\\|")));
+                return new Entry(parts[0], parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4], files);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return String.join("\t", runId, shard, String.valueOf(ended), String.valueOf(bytes), state,
+                    String.join("|", files));
+        }
+    }
+
+    /**
+     * Enforce the limits on a background thread so the first test does not wait for compaction
+     */
+    public static void startAsync() {
+        if (!ENABLED) {
+            return;
+        }
+        Thread t = new Thread(() -> {
+            try {
+                enforce();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("test-output retention failed: " + e);
+            }
+        }, "test-output-retention");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Append this JVM's files to the index (called once at shutdown)
+     */
+    public static void recordRun(List<Path> files) {
+        if (ENABLED) {
+            DEFAULT.record(RunContext.runId(), RunContext.shardId(), files);
+        }
+    }
+
+    void record(String runId, String shard, List<Path> files) {
+        List<String> relative = new ArrayList<>();
+        Set<Object> counted = new HashSet<>();
+        long bytes = 0;
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            if (!absolute.startsWith(root) || !Files.exists(absolute)) {
+                continue;
+            }
+            relative.add(root.relativize(absolute).toString().replace('\\', '/'));
+            bytes += size(absolute, counted);
+        }
+        Entry entry = new Entry(runId, shard, System.currentTimeMillis(), bytes, "live", relative);
+        try {
+            withLock(() -> {
+                Path index = root.resolve(INDEX_FILE);
+                if (!Files.exists(index)) {
+                    writeIndex(bootstrap(runId, new HashSet<>(relative)));
+                }
+                Files.write(index, (entry.format() + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                return null;
+            });
+        } catch (IOException e) {
+            System.err.println("Could not record run in " + INDEX_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compact runs beyond the limits, drop the oldest archives, prune orphaned screenshot blobs
+     */
+    public static void enforce() throws IOException {
+        DEFAULT.enforce(RunContext.runId());
+    }
+
+    /**
+     * Compact runs other than currentRunId beyond the limits, drop the oldest archives, then prune
+     * the screenshot blobs archiving left without links; that is where the space is freed
+     */
+    void enforce(String currentRunId) throws IOException {
+        withLock(() -> {
+            List<Entry> entries = readIndex(currentRunId);
+            compactOldRuns(entries, currentRunId);
+            dropOldArchives();
+            writeIndex(entries);
+            int pruned = ScreenshotStore.pruneOrphans(screenshots.toString());
+            if (pruned > 0) {
+                System.out.println("Retention: pruned " + pruned + " unreferenced screenshot blob(s)");
+            }
+            return null;
+        });
+    }
+
+    private void compactOldRuns(List<Entry> entries, String currentRunId) throws IOException {
+        // Group shard lines into runs, newest first
+        Map<String, List<Entry>> runs = new LinkedHashMap<>();
+        entries.stream()
+                .filter(e -> e.state.equals("live") && !e.runId.equals(currentRunId))
+                .sorted(Comparator.comparingLong((Entry e) -> e.ended).reversed())
+                .forEach(e -> runs.computeIfAbsent(e.runId, k -> new ArrayList<>()).add(e));
+
+        int kept = 0;
+        long keptBytes = 0;
+        for (Map.Entry<String, List<Entry>> run : runs.entrySet()) {
+            long bytes = run.getValue().stream().mapToLong(e -> e.bytes).sum();
+            if (kept < maxRuns && keptBytes + bytes <= maxBytes) {
+                kept++;
+                keptBytes += bytes;
+                continue;
+            }
+            archive(run.getKey(), run.getValue());
+        }
+    }
+
+    private void archive(String runId, List<Entry> shards) throws IOException {
+        Path archiveDir = root.resolve(ARCHIVE_DIR);
+        Files.createDirectories(archiveDir);
+        Path zip = archiveDir.resolve(runId + ".zip");
+        Path tmp = archiveDir.resolve(runId + ".zip.tmp");
+
+        // Shards of one run share e.g. the results directory, so de-duplicate first
+        Set<String> names = new LinkedHashSet<>();
+        for (Entry shard : shards) {
+            names.addAll(shard.files);
+        }
+
+        List<Path> archived = new ArrayList<>();
+        try (OutputStream out = Files.newOutputStream(tmp); ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            for (String name : names) {
+                Path file = root.resolve(name);
+                if (Files.isDirectory(file)) {
+                    try (Stream<Path> tree = Files.walk(file)) {
+                        for (Path child : tree.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                            addToZip(zipOut, child);
+                        }
+                    }
+                    archived.add(file);
+                } else if (Files.isRegularFile(file)) {
+                    addToZip(zipOut, file);
+                    archived.add(file);
+                }
+            }
+        }
+        Files.move(tmp, zip, StandardCopyOption.REPLACE_EXISTING);
+
+        // Only delete once the archive is complete
+        for (Path file : archived) {
+            deleteTree(file);
+        }
+        for (Entry shard : shards) {
+            shard.state = "archived";
+        }
+        System.out.println("Retention: archived run " + runId + " (" + archived.size() + " paths) to " + zip);
+    }
+
+    private void addToZip(ZipOutputStream zipOut, Path file) throws IOException {
+        zipOut.putNextEntry(new ZipEntry(root.relativize(file).toString().replace('\\', '/')));
+        Files.copy(file, zipOut);
+        zipOut.closeEntry();
+    }
+
+    private void dropOldArchives() throws IOException {
+        Path archiveDir = root.resolve(ARCHIVE_DIR);
+        if (!Files.isDirectory(archiveDir)) {
+            return;
+        }
+        List<Path> archives;
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            archives = files.filter(p -> p.getFileName().toString().endsWith(".zip"))
+                    .sorted(Comparator.comparingLong(RetentionManager::lastModified).reversed())
+                    .collect(Collectors.toList());
+        }
+        for (int i = MAX_ARCHIVES; i < archives.size(); i++) {
+            Files.deleteIfExists(archives.get(i));
+        }
+    }
+
+    private List<Entry> readIndex(String currentRunId) throws IOException {
+        Path index = root.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return bootstrap(currentRunId, Set.of());
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            Entry entry = Entry.parse(line);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void writeIndex(List<Entry> entries) throws IOException {
+        Files.createDirectories(root);
+        Path tmp = root.resolve(INDEX_FILE + ".tmp");
+        StringBuilder out = new StringBuilder();
+        for (Entry entry : entries) {
+            if (!entry.state.equals("archived")) { // archived runs live on as their zip
+                out.append(entry.format()).append('\n');
+            }
+        }
+        Files.write(tmp, out.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, root.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * One-time scan for output written before the index existed: every ExtentReport_*.html
+     * becomes a run of its own, loose screenshots become one "legacy-screenshots" run
+     */
+    private List<Entry> bootstrap(String currentRunId, Set<String> currentRun) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return entries;
+        }
+        DateTimeFormatter reportTimestamp = DateTimeFormatter.ofPattern("yyyy.MM.dd.HH.mm.ss");
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path report : files.collect(Collectors.toList())) {
+                String name = report.getFileName().toString();
+                if (!name.startsWith("ExtentReport_") || !name.endsWith(".html") || name.endsWith(".partial.html")
+                        || currentRun.contains(name)) {
+                    continue;
+                }
+                String stamp = name.substring("ExtentReport_".length(), name.length() - ".html".length());
+                long ended;
+                try {
+                    ended = LocalDateTime.parse(stamp.substring(0, Math.min(stamp.length(), 19)), reportTimestamp)
+                            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                } catch (DateTimeParseException e) {
+                    ended = lastModified(report);
+                }
+                entries.add(new Entry("legacy-" + stamp, "legacy", ended, size(report, new HashSet<>()), "live", new ArrayList<>(List.of(name))));
+            }
+        }
+
+        Set<Object> counted = new HashSet<>();
+        if (Files.isDirectory(screenshots)) {
+            List<String> loose = new ArrayList<>();
+            long bytes = 0;
+            long newest = 0;
+            try (Stream<Path> files = Files.list(screenshots)) {
+                for (Path shot : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    String name = root.relativize(shot.toAbsolutePath().normalize()).toString().replace('\\', '/');
+                    if (currentRun.contains(name) || shot.getFileName().toString().startsWith(currentRunId)) {
+                        continue;
+                    }
+                    loose.add(name);
+                    bytes += size(shot, counted);
+                    newest = Math.max(newest, lastModified(shot));
+                }
+            }
+            if (!loose.isEmpty()) {
+                entries.add(new Entry("legacy-screenshots", "legacy", newest, bytes, "live", loose));
+            }
+        }
+        return entries;
+    }
+
+    private interface LockedAction {
+        Object run() throws IOException;
+    }
+
+    /**
+     * Forks of one build share test-output, so index updates are serialised with a file lock
+     */
+    private synchronized void withLock(LockedAction action) throws IOException {
+        Files.createDirectories(root);
+        try (FileChannel channel = FileChannel.open(root.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            action.run();
+        }
+    }
+
+    private static void deleteTree(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> tree = Files.walk(path)) {
+                for (Path p : tree.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Bytes of a file or tree, counting each file (inode) once across calls with the same set:
+     * screenshots of one run are hard links into the blob store and often share a blob
+     */
+    private static long size(Path path, Set<Object> counted) {
+        try {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> tree = Files.walk(path)) {
+                    return tree.filter(Files::isRegularFile).mapToLong(p -> size(p, counted)).sum();
+                }
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Object key = attributes.fileKey() != null ? attributes.fileKey() : path;
+            return counted.add(key) ? attributes.size() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.pinterest.utils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identity of the current test run, shared by everything that writes run artifacts.
+ *
+ * The id comes from -Drun.id (so forked JVMs of one build can share it) or is generated once
+ * per JVM as yyyyMMdd-HHmmss-xxxx. Each JVM of a run is one shard: -Dshard.id if given,
+ * otherwise the surefire fork number, otherwise the process id.
+ */
+public final class RunContext {
+
+    private static final String RUN_ID = resolveRunId();
+    private static final String SHARD_ID = resolveShardId();
+
+    private static String resolveRunId() {
+        String configured = System.getProperty("run.id");
+        if (configured != null && !configured.isBlank()) {
+            return Artifacts.sanitize(configured.trim());
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return timestamp + "-" + String.format("%04x", ThreadLocalRandom.current().nextInt(0x10000));
+    }
+
+    private static String resolveShardId() {
+        String configured = System.getProperty("shard.id");
+        if (configured != null && !configured.isBlank()) {
+            return Artifacts.sanitize(configured.trim());
+        }
+        String fork = System.getProperty("surefire.fork");
+        if (fork != null && !fork.isBlank() && !fork.startsWith("$")) {
+            return "fork" + fork.trim();
+        }
+        return "pid" + ProcessHandle.current().pid();
+    }
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    public static String shardId() {
+        return SHARD_ID;
+    }
+
+    /**
+     * True when several JVMs write into the same run (surefire forks or -Dshard.id)
+     */
+    public static boolean isSharded() {
+        return System.getProperty("shard.id") != null || Integer.getInteger("forks", 1) > 1;
+    }
+
+    private RunContext() {}
+}
@@ -0,0 +1,303 @@
+package com.pinterest.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the last screencast.seconds of a Chromium session's screencast (CDP Page.startScreencast)
+ * in a fixed-size off-heap ring buffer (screencast.buffer.mb). Frames are thrown away when a
+ * test passes; only a failure turns them into an animated GIF next to the screenshots.
+ *
+ * Off by default (screencast.enabled=true to turn on); drivers without DevTools are ignored.
+ */
+public class ScreencastRecorder implements AutoCloseable {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("screencast.enabled", false);
+    private static final int SECONDS = ConfigReader.getInt("screencast.seconds", 10);
+    private static final int BUFFER_MB = ConfigReader.getInt("screencast.buffer.mb", 16);
+    private static final int MAX_WIDTH = ConfigReader.getInt("screencast.max.width", 800);
+
+    /** Frame acks stay off the CDP event thread, GIF encoding off the test thread */
+    private static final ExecutorService acks = daemonExecutor("screencast-ack");
+    private static final ExecutorService encoder = daemonExecutor("screencast-encoder");
+    private static final AtomicInteger pending = new AtomicInteger();
+
+    private final DevTools devTools;
+    private final FrameRing ring;
+    private volatile boolean recording;
+
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Frames stored back to back in one direct buffer; the oldest are overwritten first
+     */
+    static final class FrameRing {
+        private final ByteBuffer buffer;
+        private final long windowMillis;
+        private final ArrayDeque<long[]> frames = new ArrayDeque<>(); // {offset, length, timestamp ms}
+        private int writePos;
+
+        FrameRing(int capacityBytes, long windowMillis) {
+            this.buffer = ByteBuffer.allocateDirect(capacityBytes);
+            this.windowMillis = windowMillis;
+        }
+
+        synchronized void add(byte[] frame, long timestampMillis) {
+            int length = frame.length;
+            if (length > buffer.capacity()) {
+                return;
+            }
+            if (writePos + length > buffer.capacity()) {
+                // Frames past the old write position are the oldest; they cannot stay contiguous
+                while (!frames.isEmpty() && frames.peekFirst()[0] >= writePos) {
+                    frames.pollFirst();
+                }
+                writePos = 0;
+            }
+            while (!frames.isEmpty() && overlaps(frames.peekFirst(), writePos, length)) {
+                frames.pollFirst();
+            }
+            while (!frames.isEmpty() && frames.peekFirst()[2] < timestampMillis - windowMillis) {
+                frames.pollFirst();
+            }
+            ByteBuffer target = buffer.duplicate();
+            target.position(writePos);
+            target.put(frame);
+            frames.addLast(new long[]{writePos, length, timestampMillis});
+            writePos += length;
+        }
+
+        private static boolean overlaps(long[] frame, int start, int length) {
+            return frame[0] < start + length && start < frame[0] + frame[1];
+        }
+
+        synchronized void clear() {
+            frames.clear();
+            writePos = 0;
+        }
+
+        synchronized int size() {
+            return frames.size();
+        }
+
+        /**
+         * Copy the frames onto the heap so encoding can run while recording continues
+         */
+        synchronized List<Map.Entry<Long, byte[]>> snapshot() {
+            List<Map.Entry<Long, byte[]>> copy = new ArrayList<>(frames.size());
+            for (long[] frame : frames) {
+                byte[] bytes = new byte[(int) frame[1]];
+                ByteBuffer source = buffer.duplicate();
+                source.position((int) frame[0]);
+                source.get(bytes);
+                copy.add(Map.entry(frame[2], bytes));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Start recording if enabled and the driver speaks DevTools, otherwise null
+     */
+    public static ScreencastRecorder startIfEnabled(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            ScreencastRecorder recorder = new ScreencastRecorder(((HasDevTools) driver).getDevTools());
+            recorder.start();
+            return recorder;
+        } catch (RuntimeException e) {
+            System.err.println("Screencast recording not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    ScreencastRecorder(DevTools devTools) {
+        this.devTools = devTools;
+        this.ring = new FrameRing(BUFFER_MB * 1024 * 1024, SECONDS * 1000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start() {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(new Event<Map<String, Object>>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE)),
+                frame -> {
+                    Object sessionId = frame.get("sessionId");
+                    acks.execute(() -> ack(sessionId));
+                    if (!recording) {
+                        return;
+                    }
+                    Map<String, Object> metadata = (Map<String, Object>) frame.get("metadata");
+                    long timestamp = metadata != null && metadata.get("timestamp") instanceof Number
+                            ? (long) (((Number) metadata.get("timestamp")).doubleValue() * 1000)
+                            : System.currentTimeMillis();
+                    ring.add(Base64.getDecoder().decode((String) frame.get("data")), timestamp);
+                });
+        devTools.send(new Command<Void>("Page.enable", Map.of()));
+        devTools.send(new Command<Void>("Page.startScreencast",
+                Map.of("format", "jpeg", "quality", 60, "maxWidth", MAX_WIDTH, "maxHeight", MAX_WIDTH)));
+        recording = true;
+    }
+
+    private void ack(Object sessionId) {
+        try {
+            devTools.send(new Command<Void>("Page.screencastFrameAck", Map.of("sessionId", sessionId)));
+        } catch (RuntimeException e) {
+            // Session gone (driver quit between frame and ack)
+        }
+    }
+
+    /**
+     * Drop everything recorded so far (start of a test, or a test that passed)
+     */
+    public void discard() {
+        ring.clear();
+    }
+
+    public int getFrameCount() {
+        return ring.size();
+    }
+
+    /**
+     * Encode the buffered frames to an animated GIF in the background; the path is returned
+     * straight away, or null when there is nothing to encode
+     */
+    public Path saveGif(String label) {
+        List<Map.Entry<Long, byte[]>> frames = ring.snapshot();
+        if (frames.isEmpty()) {
+            return null;
+        }
+        Path target = Artifacts.newFile(label, ".gif");
+        pending.incrementAndGet();
+        CompletableFuture.runAsync(() -> {
+            try {
+                writeGif(frames, target);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not encode screencast " + target + ": " + e.getMessage());
+            } finally {
+                pending.decrementAndGet();
+            }
+        }, encoder);
+        return target;
+    }
+
+    static void writeGif(List<Map.Entry<Long, byte[]>> frames, Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(Files.newOutputStream(target))) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < frames.size(); i++) {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(frames.get(i).getValue()));
+                if (image == null) {
+                    continue;
+                }
+                long next = i + 1 < frames.size() ? frames.get(i + 1).getKey() : frames.get(i).getKey() + 1000;
+                int delayCs = (int) Math.max(2, Math.min(500, (next - frames.get(i).getKey()) / 10));
+                writer.writeToSequence(new IIOImage(image, null, frameMetadata(writer, image, delayCs, i == 0)), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static IIOMetadata frameMetadata(ImageWriter writer, BufferedImage image, int delayCs, boolean first)
+            throws IOException {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(delayCs));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        if (first) {
+            // Loop forever
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    /**
+     * Wait for GIFs still being encoded (suite end)
+     */
+    public static boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop the screencast; call before the driver quits
+     */
+    @Override
+    public void close() {
+        recording = false;
+        try {
+            devTools.send(new Command<Void>("Page.stopScreencast", Map.of()));
+        } catch (RuntimeException e) {
+            // Browser already gone
+        }
+        ring.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.pinterest.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Off-thread screenshot pipeline.
+ *
+ * The calling (test) thread only asks the driver for PNG bytes in memory; re-encoding, dedupe
+ * and the disk write (ScreenshotStore) happen on a small bounded worker pool. The target path is
+ * known up front, so callers can link it straight away and only wait on the future if they need
+ * the file itself.
+ * When the queue is full the caller writes the file itself, which throttles producers instead of
+ * buffering screenshots without limit.
+ */
+public final class ScreenshotService {
+
+    private static final int THREADS = ConfigReader.getInt("screenshot.writer.threads", 2);
+    private static final int QUEUE_CAPACITY = ConfigReader.getInt("screenshot.queue.capacity", 16);
+
+    private static final ThreadPoolExecutor writers = createPool();
+
+    private static ThreadPoolExecutor createPool() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "screenshot-writer-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * A screenshot whose path is final but whose file may still be in flight
+     */
+    public static final class PendingScreenshot {
+        private final Path path;
+        private final CompletableFuture<Path> written;
+
+        PendingScreenshot(Path path, CompletableFuture<Path> written) {
+            this.path = path;
+            this.written = written;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public CompletableFuture<Path> whenWritten() {
+            return written;
+        }
+
+        /**
+         * Block until the file is on disk; returns false on failure or timeout
+         */
+        public boolean await(Duration timeout) {
+            try {
+                written.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Grab PNG bytes from the driver on the calling thread and queue the write
+     */
+    public static PendingScreenshot capture(WebDriver driver, Path target) {
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return submit(png, target);
+    }
+
+    /**
+     * Queue already captured bytes for writing to target
+     */
+    public static PendingScreenshot submit(byte[] bytes, Path target) {
+        CompletableFuture<Path> written = new CompletableFuture<>();
+        writers.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                ScreenshotStore.store(bytes, target);
+                Timeline.record("Screenshot write", "screenshot", start, System.nanoTime(), null);
+                written.complete(target);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to write screenshot " + target + ": " + e.getMessage());
+                written.completeExceptionally(e);
+            }
+        });
+        return new PendingScreenshot(target, written);
+    }
+
+    /**
+     * Screenshots waiting for a writer thread
+     */
+    public static int getQueueDepth() {
+        return writers.getQueue().size();
+    }
+
+    /**
+     * Wait for queued and running writes to finish (e.g. before the final report flush)
+     */
+    public static boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (writers.getActiveCount() > 0 || !writers.getQueue().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ScreenshotService() {}
+}
@@ -0,0 +1,303 @@
+package com.pinterest.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed, deduplicated screenshot storage.
+ *
+ * Each distinct image is stored once under screenshots/objects/ab/abcdef...(sha256).ext.
+ * The path a caller asked for (the one linked from the Extent report) becomes a hard link
+ * to that blob, so report links keep working while identical screens share one copy on disk.
+ * With screenshot.dedupe.distance > 0, near-identical screens of the same run are detected with a
+ * 64-bit difference hash and mapped to the blob of the first one seen; earlier runs only ever
+ * match byte for byte, so a failure never links to an older, merely similar screen. Optional
+ * downscaling and JPEG re-encoding are configured per profile:
+ *
+ *   screenshot.format=png|jpeg      screenshot.scale=1.0
+ *   screenshot.jpeg.quality=0.8     screenshot.dedupe.distance=0   (0 = exact duplicates only)
+ */
+public final class ScreenshotStore {
+
+    private static final String FORMAT = ConfigReader.get("screenshot.format", "png").trim().toLowerCase();
+    private static final double SCALE = Double.parseDouble(ConfigReader.get("screenshot.scale", "1.0"));
+    private static final float JPEG_QUALITY = Float.parseFloat(ConfigReader.get("screenshot.jpeg.quality", "0.8"));
+    private static final int DEDUPE_DISTANCE = ConfigReader.getInt("screenshot.dedupe.distance", 0);
+
+    private static final String OBJECTS_DIR = "objects";
+    private static final String INDEX_FILE = "index.tsv";
+
+    /** Screenshot root -> perceptual hash -> blob of the images stored by this run */
+    private static final Map<Path, Map<Long, String>> seen = new HashMap<>();
+
+    static {
+        if (!FORMAT.equals("png") && !FORMAT.equals("jpeg")) {
+            throw new RuntimeException("screenshot.format must be png or jpeg: " + FORMAT);
+        }
+        if (SCALE <= 0 || SCALE > 1) {
+            throw new RuntimeException("screenshot.scale must be in (0, 1]: " + SCALE);
+        }
+    }
+
+    /**
+     * File extension (with dot) screenshots get under the active profile
+     */
+    public static String extension() {
+        return FORMAT.equals("jpeg") ? ".jpg" : ".png";
+    }
+
+    /**
+     * Store a PNG captured from the driver and make link point at the stored blob.
+     * Runs on a screenshot writer thread; returns the blob path.
+     */
+    public static Path store(byte[] png, Path link) throws IOException {
+        Path root = link.toAbsolutePath().getParent();
+
+        BufferedImage image = null;
+        byte[] encoded = png;
+        long phash = 0;
+        if (needsDecode()) {
+            image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IOException("Screenshot bytes are not a readable image");
+            }
+            phash = differenceHash(image);
+        }
+
+        // Near-duplicate of something already stored?
+        if (image != null && DEDUPE_DISTANCE > 0) {
+            Path existing = findSimilar(root, phash);
+            if (existing != null) {
+                link(existing, link);
+                return existing;
+            }
+        }
+
+        if (image != null && (SCALE < 1 || FORMAT.equals("jpeg"))) {
+            encoded = encode(scale(image));
+        }
+
+        String sha = sha256(encoded);
+        String relative = OBJECTS_DIR + "/" + sha.substring(0, 2) + "/" + sha + extension();
+        Path blob = root.resolve(relative);
+        if (!Files.exists(blob) && write(encoded, blob)) {
+            index(root, image != null ? Long.toHexString(phash) + "\t" + relative : relative);
+        }
+        if (image != null) {
+            remember(root, phash, relative);
+        }
+        link(blob, link);
+        return blob;
+    }
+
+    private static boolean needsDecode() {
+        return DEDUPE_DISTANCE > 0 || SCALE < 1 || FORMAT.equals("jpeg");
+    }
+
+    private static synchronized Path findSimilar(Path root, long phash) {
+        for (Map.Entry<Long, String> stored : seen.getOrDefault(root, Map.of()).entrySet()) {
+            if (Long.bitCount(stored.getKey() ^ phash) <= DEDUPE_DISTANCE) {
+                Path blob = root.resolve(stored.getValue());
+                if (Files.exists(blob)) {
+                    return blob;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keep the hash for this run's lookups
+     */
+    private static synchronized void remember(Path root, long phash, String relative) {
+        seen.computeIfAbsent(root, r -> new LinkedHashMap<>()).putIfAbsent(phash, relative);
+    }
+
+    /**
+     * List a newly written blob in the on-disk index used by pruneOrphans: "[phash TAB] relative path"
+     */
+    private static synchronized void index(Path root, String line) throws IOException {
+        Files.write(root.resolve(OBJECTS_DIR).resolve(INDEX_FILE), (line + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Hard link when the file system allows it, otherwise a plain copy
+     */
+    private static void link(Path blob, Path link) throws IOException {
+        Files.createDirectories(link.toAbsolutePath().getParent());
+        Files.deleteIfExists(link);
+        try {
+            Files.createLink(link, blob);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(blob, link, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Write target through a unique temp file; false when another thread or fork stored the
+     * same content first
+     */
+    static boolean write(byte[] bytes, Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(tmp, target);
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                return false; // same name, same content
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image) {
+        int width = Math.max(1, (int) Math.round(image.getWidth() * SCALE));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * SCALE));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (FORMAT.equals("png")) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * dHash: shrink to 9x8 grey, one bit per horizontal gradient sign
+     */
+    static long differenceHash(BufferedImage image) {
+        BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = small.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, 9, 8, null);
+        g.dispose();
+
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left < right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Delete blobs that no screenshot link points at any more (link count 1) and drop them from
+     * the index. Recently written blobs are skipped, their link may not exist yet.
+     * Returns the number of blobs removed; 0 where link counts are not available.
+     */
+    public static synchronized int pruneOrphans(String screenshotDir) throws IOException {
+        Path objects = objectsDir(screenshotDir);
+        Path index = objects.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return 0;
+        }
+        long recent = System.currentTimeMillis() - 10 * 60 * 1000;
+        Path root = objects.getParent();
+        List<String> kept = new ArrayList<>();
+        int pruned = 0;
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t");
+            if (line.isBlank() || parts.length > 2) {
+                continue;
+            }
+            Path blob = root.resolve(parts[parts.length - 1]);
+            if (!Files.exists(blob)) {
+                continue;
+            }
+            int links;
+            try {
+                links = (Integer) Files.getAttribute(blob, "unix:nlink");
+            } catch (UnsupportedOperationException | IllegalArgumentException e) {
+                return 0;
+            }
+            if (links <= 1 && Files.getLastModifiedTime(blob).toMillis() < recent) {
+                Files.delete(blob);
+                pruned++;
+            } else {
+                kept.add(line);
+            }
+        }
+        Path tmp = objects.resolve(INDEX_FILE + ".tmp");
+        Files.write(tmp, kept.isEmpty() ? new byte[0] : (String.join("\n", kept) + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING);
+        return pruned;
+    }
+
+    /**
+     * Root the store would use for a given screenshot directory (for maintenance tools)
+     */
+    public static Path objectsDir(String screenshotDir) {
+        return Paths.get(screenshotDir).resolve(OBJECTS_DIR);
+    }
+
+    private ScreenshotStore() {}
+}
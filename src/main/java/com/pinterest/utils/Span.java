@@ -0,0 +1,108 @@
+package com.pinterest.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed step, opened with try-with-resources:
+ *
+ *   try (Span span = Span.start("Enter email")) { ... }
+ *
+ * Spans opened while another is open on the same thread become its children. Timing uses
+ * System.nanoTime; the wall clock start is kept only to place the step in reports.
+ * Collection per test is handled by Spans.
+ *
+ * The name is a key for step history and flame graphs, so keep it fixed and put inputs in
+ * attributes: Span.start("Search").attribute("query", query)
+ */
+public final class Span implements AutoCloseable {
+
+    private final String name;
+    private final Span parent;
+    private final String page;
+    private final long startMillis;
+    private final long startNanos;
+    private long endNanos = -1;
+    private final List<Span> children = new ArrayList<>();
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+    Span(String name, Span parent) {
+        this.name = name;
+        this.parent = parent;
+        this.page = MetricsServer.isEnabled() ? CommandMetrics.pageObject() : null;
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public static Span start(String name) {
+        return Spans.open(name);
+    }
+
+    @Override
+    public void close() {
+        if (endNanos < 0) {
+            end();
+            Spans.closed(this);
+        }
+    }
+
+    void end() {
+        if (endNanos < 0) {
+            endNanos = System.nanoTime();
+            Timeline.record(name, "step", startNanos, endNanos, attributes.isEmpty() ? null : Map.copyOf(attributes));
+            if (page != null) {
+                MetricsServer.observeStep(page, name, endNanos - startNanos);
+            }
+        }
+    }
+
+    /**
+     * Describe this run of the step (shown in the report and timeline, not part of the name)
+     */
+    public Span attribute(String key, Object value) {
+        attributes.put(key, String.valueOf(value));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getDurationNanos() {
+        return (endNanos < 0 ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    public long getDurationMillis() {
+        return getDurationNanos() / 1_000_000;
+    }
+
+    public List<Span> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    void addChild(Span child) {
+        children.add(child);
+    }
+
+    /**
+     * Root;parent;name, the key flame graph tools expect
+     */
+    public String path() {
+        return parent == null ? name : parent.path() + ";" + name;
+    }
+}
@@ -0,0 +1,150 @@
+package com.pinterest.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-thread bookkeeping for Span: the stack of open spans, the finished root spans of the
+ * current test, and per test class totals for a flame summary.
+ *
+ * BaseTest calls beginTest/endTest around every test method. Spans opened on a thread
+ * without a test (e.g. pool worker threads) still time and nest, but are not collected.
+ */
+public final class Spans {
+
+    private static final ThreadLocal<Deque<Span>> open = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<List<Span>> roots = new ThreadLocal<>();
+
+    /** test class -> folded span path -> {count, total nanos} */
+    private static final Map<String, Map<String, long[]>> flame = new ConcurrentHashMap<>();
+
+    static Span open(String name) {
+        Deque<Span> stack = open.get();
+        Span span = new Span(name, stack.peek());
+        if (span.getParent() != null) {
+            span.getParent().addChild(span);
+        } else if (roots.get() != null) {
+            roots.get().add(span);
+        }
+        stack.push(span);
+        return span;
+    }
+
+    static void closed(Span span) {
+        Deque<Span> stack = open.get();
+        if (!stack.contains(span)) {
+            return; // already unwound, e.g. by endTest
+        }
+        // Tolerate a child left open by an exception path: unwind down to this span
+        while (!stack.isEmpty()) {
+            Span top = stack.pop();
+            if (top == span) {
+                return;
+            }
+            top.end();
+        }
+    }
+
+    /**
+     * Start collecting root spans for a test running on this thread
+     */
+    public static void beginTest() {
+        open.get().clear();
+        roots.set(new ArrayList<>());
+    }
+
+    /**
+     * Root spans of the test running on this thread so far, without ending collection
+     */
+    public static List<Span> current() {
+        List<Span> collected = roots.get();
+        return collected == null ? List.of() : List.copyOf(collected);
+    }
+
+    /**
+     * Stop collecting; returns the test's root spans and adds them to the class flame totals
+     */
+    public static List<Span> endTest(String testClass) {
+        List<Span> collected = roots.get();
+        roots.remove();
+        Deque<Span> stack = open.get();
+        while (!stack.isEmpty()) {
+            stack.pop().end();
+        }
+        if (collected == null) {
+            return List.of();
+        }
+        Map<String, long[]> totals = flame.computeIfAbsent(testClass, c -> new TreeMap<>());
+        synchronized (totals) {
+            for (Span span : collected) {
+                accumulate(totals, span);
+            }
+        }
+        return collected;
+    }
+
+    private static void accumulate(Map<String, long[]> totals, Span span) {
+        // Self time, so the folded output sums correctly in flame graph tools
+        long self = span.getDurationNanos();
+        for (Span child : span.getChildren()) {
+            self -= child.getDurationNanos();
+            accumulate(totals, child);
+        }
+        long[] entry = totals.computeIfAbsent(span.path(), p -> new long[2]);
+        entry[0]++;
+        entry[1] += Math.max(self, 0);
+    }
+
+    /**
+     * Folded stacks for a test class, "path total-microseconds" per line (flamegraph.pl / speedscope input)
+     */
+    public static String foldedStacks(String testClass) {
+        Map<String, long[]> totals = flame.get(testClass);
+        if (totals == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        synchronized (totals) {
+            for (Map.Entry<String, long[]> e : totals.entrySet()) {
+                out.append(e.getKey()).append(' ').append(e.getValue()[1] / 1000).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Indented text summary for a test class: total time and call count per span path
+     */
+    public static String summary(String testClass) {
+        Map<String, long[]> totals = flame.get(testClass);
+        if (totals == null || totals.isEmpty()) {
+            return "";
+        }
+        // Inclusive totals per path, derived from the self times
+        Map<String, long[]> inclusive = new TreeMap<>();
+        synchronized (totals) {
+            for (Map.Entry<String, long[]> e : totals.entrySet()) {
+                String path = e.getKey();
+                inclusive.computeIfAbsent(path, p -> new long[2])[0] += e.getValue()[0];
+                for (int i = path.length(); i > 0; i = path.lastIndexOf(';', i - 1)) {
+                    inclusive.computeIfAbsent(path.substring(0, i), p -> new long[2])[1] += e.getValue()[1];
+                }
+            }
+        }
+        StringBuilder out = new StringBuilder(String.format("%-60s %8s %12s%n", "Step", "Calls", "Total ms"));
+        for (Map.Entry<String, long[]> e : inclusive.entrySet()) {
+            String path = e.getKey();
+            int depth = path.length() - path.replace(";", "").length();
+            String label = "  ".repeat(depth) + path.substring(path.lastIndexOf(';') + 1);
+            out.append(String.format("%-60s %8d %12d%n", label, e.getValue()[0], e.getValue()[1] / 1_000_000));
+        }
+        return out.toString();
+    }
+
+    private Spans() {}
+}
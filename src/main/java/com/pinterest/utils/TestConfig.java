@@ -0,0 +1,148 @@
+package com.pinterest.utils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, validated view of the core run settings.
+ * Built once by ConfigReader and shared by every thread, so values are parsed a single time.
+ */
+public final class TestConfig {
+
+    private final String profile;
+    private final String baseUrl;
+    private final String browser;
+    private final boolean headless;
+    private final Duration implicitWait;
+    private final Duration explicitWait;
+    private final Duration pageLoadTimeout;
+
+    private TestConfig(String profile, String baseUrl, String browser, boolean headless,
+                       Duration implicitWait, Duration explicitWait, Duration pageLoadTimeout) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        this.browser = browser;
+        this.headless = headless;
+        this.implicitWait = implicitWait;
+        this.explicitWait = explicitWait;
+        this.pageLoadTimeout = pageLoadTimeout;
+    }
+
+    /**
+     * Build from resolved key/value pairs, collecting every problem before failing
+     */
+    static TestConfig from(String profile, Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+
+        String baseUrl = required(values, "base.url", errors);
+        if (baseUrl != null) {
+            try {
+                String scheme = URI.create(baseUrl).getScheme();
+                if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+                    errors.add("base.url must be an http(s) URL: " + baseUrl);
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add("base.url is not a valid URL: " + baseUrl);
+            }
+            // Tests append paths such as "/login/", so keep the base without a trailing slash
+            while (baseUrl.endsWith("/")) {
+                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            }
+        }
+
+        String browser = required(values, "browser", errors);
+        boolean headless = parseBoolean(values, "headless", errors);
+        Duration implicitWait = parseSeconds(values, "implicit.wait", errors);
+        Duration explicitWait = parseSeconds(values, "explicit.wait", errors);
+        Duration pageLoadTimeout = parseSeconds(values, "page.load.timeout", errors);
+
+        if (!errors.isEmpty()) {
+            throw new RuntimeException("Invalid configuration (profile '" + profile + "'): "
+                    + String.join("; ", errors));
+        }
+
+        return new TestConfig(profile, baseUrl, browser, headless,
+                implicitWait, explicitWait, pageLoadTimeout);
+    }
+
+    private static String required(Map<String, String> values, String key, List<String> errors) {
+        String value = values.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            errors.add(key + " is required");
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static boolean parseBoolean(Map<String, String> values, String key, List<String> errors) {
+        String value = required(values, key, errors);
+        if (value == null) {
+            return false;
+        }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            errors.add(key + " must be true or false: " + value);
+            return false;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static Duration parseSeconds(Map<String, String> values, String key, List<String> errors) {
+        String value = required(values, key, errors);
+        if (value == null) {
+            return Duration.ZERO;
+        }
+        try {
+            int seconds = Integer.parseInt(value);
+            if (seconds < 0) {
+                errors.add(key + " must not be negative: " + value);
+                return Duration.ZERO;
+            }
+            return Duration.ofSeconds(seconds);
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be a whole number of seconds: " + value);
+            return Duration.ZERO;
+        }
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+
+    public Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "TestConfig{profile=" + profile
+                + ", baseUrl=" + baseUrl
+                + ", browser=" + browser
+                + ", headless=" + headless
+                + ", implicitWait=" + implicitWait.getSeconds() + "s"
+                + ", explicitWait=" + explicitWait.getSeconds() + "s"
+                + ", pageLoadTimeout=" + pageLoadTimeout.getSeconds() + "s}";
+    }
+}
@@ -0,0 +1,244 @@
+package com.pinterest.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Read side of the compiled test data snapshot (testdata/TestData.bin).
+ *
+ * The file is produced at build time by TestDataCompiler and is read through a
+ * memory-mapped ByteBuffer. Layout (big endian):
+ *
+ *   int    magic "PTDS"
+ *   short  version
+ *   long   CRC32 of TestData.csv, long CRC32 of TestData.json
+ *   int    string count N, int[N + 1] byte offsets, UTF-8 bytes   (interned string table)
+ *   int    column count C, int[C] header string ids
+ *   int    row count R, int[R * C] value string ids               (CSV rows)
+ *   int    entry count E, E x (int path id, int value id)         (flattened JSON, sorted by path)
+ *
+ * String id 0 is always the empty string.
+ */
+public final class TestDataSnapshot {
+
+    public static final String RESOURCE = "testdata/TestData.bin";
+    static final int MAGIC = 0x50544453; // "PTDS"
+    static final short VERSION = 1;
+
+    private static final String CSV_RESOURCE = "testdata/TestData.csv";
+    private static final String JSON_RESOURCE = "testdata/TestData.json";
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int offsetsPos;
+    private final int bytesPos;
+    private final String[] strings;
+
+    private final int columnCount;
+    private final int headerPos;
+    private final int rowCount;
+    private final int rowsPos;
+    private final int entryCount;
+    private final int entriesPos;
+
+    private TestDataSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new RuntimeException("Not a test data snapshot (bad magic)");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new RuntimeException("Unsupported test data snapshot version: " + buffer.getShort(4));
+        }
+
+        int pos = 4 + 2 + 8 + 8;
+        stringCount = buffer.getInt(pos);
+        offsetsPos = pos + 4;
+        bytesPos = offsetsPos + (stringCount + 1) * 4;
+        strings = new String[stringCount];
+
+        pos = bytesPos + buffer.getInt(offsetsPos + stringCount * 4);
+        columnCount = buffer.getInt(pos);
+        headerPos = pos + 4;
+
+        pos = headerPos + columnCount * 4;
+        rowCount = buffer.getInt(pos);
+        rowsPos = pos + 4;
+
+        pos = rowsPos + rowCount * columnCount * 4;
+        entryCount = buffer.getInt(pos);
+        entriesPos = pos + 4;
+    }
+
+    /**
+     * Wrap an already loaded snapshot buffer
+     */
+    public static TestDataSnapshot open(ByteBuffer buffer) {
+        return new TestDataSnapshot(buffer.duplicate());
+    }
+
+    /**
+     * Load the snapshot from the classpath. Returns null when it is missing or
+     * older than the text sources, so callers can fall back to the text parsers.
+     */
+    public static TestDataSnapshot loadFromClasspath() {
+        ClassLoader loader = TestDataSnapshot.class.getClassLoader();
+        URL url = loader.getResource(RESOURCE);
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            TestDataSnapshot snapshot = open(map(url));
+            if (!snapshot.matchesSources(loader)) {
+                System.err.println("Test data snapshot is stale, falling back to text parsing: " + url);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not load test data snapshot, falling back to text parsing: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static ByteBuffer map(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                Path path = Paths.get(url.toURI());
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } catch (URISyntaxException e) {
+                throw new IOException("Bad snapshot location: " + url, e);
+            }
+        }
+        // Inside a jar there is nothing to map; copy into a heap buffer instead
+        try (InputStream in = url.openStream()) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    /**
+     * The snapshot records CRC32s of the sources it was built from; a mismatch means someone
+     * edited the CSV/JSON without rebuilding.
+     */
+    private boolean matchesSources(ClassLoader loader) throws IOException {
+        return matches(loader, CSV_RESOURCE, csvChecksum()) && matches(loader, JSON_RESOURCE, jsonChecksum());
+    }
+
+    private static boolean matches(ClassLoader loader, String resource, long expected) throws IOException {
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                return true; // nothing to compare against
+            }
+            return checksum(in.readAllBytes()) == expected;
+        }
+    }
+
+    static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    long csvChecksum() {
+        return buffer.getLong(6);
+    }
+
+    long jsonChecksum() {
+        return buffer.getLong(14);
+    }
+
+    /**
+     * Interned string by id, decoded on first use
+     */
+    String string(int id) {
+        String s = strings[id];
+        if (s == null) {
+            int start = buffer.getInt(offsetsPos + id * 4);
+            int end = buffer.getInt(offsetsPos + (id + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(bytesPos + start);
+            slice.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    public int getStringCount() {
+        return stringCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * CSV rows in the same shape CSVReader has always exposed: header -> value, "" for blanks
+     */
+    public List<Map<String, String>> csvRows() {
+        String[] headers = new String[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            headers[c] = string(buffer.getInt(headerPos + c * 4));
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            Map<String, String> row = new HashMap<>(columnCount * 2);
+            int base = rowsPos + r * columnCount * 4;
+            for (int c = 0; c < columnCount; c++) {
+                row.put(headers[c], string(buffer.getInt(base + c * 4)));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Flattened JSON value for a dotted path (e.g. "search.validQuery"), or null
+     */
+    public String jsonValue(String path) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = string(buffer.getInt(entriesPos + mid * 8)).compareTo(path);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return string(buffer.getInt(entriesPos + mid * 8 + 4));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All flattened JSON entries, in path order
+     */
+    public Map<String, String> jsonEntries() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            entries.put(string(buffer.getInt(entriesPos + i * 8)), string(buffer.getInt(entriesPos + i * 8 + 4)));
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+}
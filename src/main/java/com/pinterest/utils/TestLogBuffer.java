@@ -0,0 +1,146 @@
+package com.pinterest.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Log4j2 appender that keeps the last N events of each running test in memory, keyed by the
+ * "testId" ThreadContext entry BaseTest sets. Nothing is formatted or written unless the test
+ * fails and BaseTest asks for a dump; passing tests just drop their buffer. Only tests between
+ * begin and dump/discard are buffered, so events an async logger delivers after a test ended are
+ * dropped instead of starting a buffer nobody removes.
+ *
+ *   &lt;TestLogBuffer name="TestLogBuffer" size="500"&gt;&lt;PatternLayout .../&gt;&lt;/TestLogBuffer&gt;
+ */
+@Plugin(name = "TestLogBuffer", category = "Core", elementType = Appender.ELEMENT_TYPE)
+public final class TestLogBuffer extends AbstractAppender {
+
+    public static final String TEST_ID_KEY = "testId";
+
+    private static volatile TestLogBuffer active;
+
+    private final int size;
+    private final Map<String, ArrayDeque<LogEvent>> buffers = new ConcurrentHashMap<>();
+
+    private TestLogBuffer(String name, Filter filter, Layout<? extends Serializable> layout, int size) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.size = size;
+    }
+
+    @PluginFactory
+    public static TestLogBuffer createAppender(@PluginAttribute("name") String name,
+                                               @PluginAttribute(value = "size", defaultInt = 500) int size,
+                                               @PluginElement("Layout") Layout<? extends Serializable> layout,
+                                               @PluginElement("Filter") Filter filter) {
+        if (layout == null) {
+            layout = PatternLayout.newBuilder().withPattern("%d{HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n").build();
+        }
+        TestLogBuffer appender = new TestLogBuffer(name, filter, layout, size);
+        active = appender;
+        return appender;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        String testId = event.getContextData().getValue(TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        ArrayDeque<LogEvent> buffer = buffers.get(testId);
+        if (buffer == null) {
+            return; // not begun, or already dumped or discarded
+        }
+        // Async loggers reuse event objects, so keep an immutable copy
+        synchronized (buffer) {
+            if (buffer.size() == size) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event.toImmutable());
+        }
+    }
+
+    private List<String> format(String testId) {
+        ArrayDeque<LogEvent> buffer = buffers.remove(testId);
+        List<String> lines = new ArrayList<>();
+        if (buffer == null) {
+            return lines;
+        }
+        synchronized (buffer) {
+            for (LogEvent event : buffer) {
+                lines.add(new String(getLayout().toByteArray(event), StandardCharsets.UTF_8).stripTrailing());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Start buffering events logged with this test id
+     */
+    public static void begin(String testId) {
+        TestLogBuffer appender = active;
+        if (appender != null && testId != null) {
+            appender.buffers.put(testId, new ArrayDeque<>(Math.min(appender.size, 64)));
+        }
+    }
+
+    /**
+     * Formatted lines buffered for a test (after letting async loggers catch up), then forget them.
+     * Empty when the active configuration has no TestLogBuffer appender.
+     */
+    public static List<String> dump(String testId) {
+        TestLogBuffer appender = active;
+        if (appender == null || testId == null) {
+            return List.of();
+        }
+        awaitAsyncLoggers(500);
+        return appender.format(testId);
+    }
+
+    /**
+     * Drop a test's buffer without formatting anything (the test passed)
+     */
+    public static void discard(String testId) {
+        TestLogBuffer appender = active;
+        if (appender != null && testId != null) {
+            appender.buffers.remove(testId);
+        }
+    }
+
+    private static void awaitAsyncLoggers(long timeoutMillis) {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        if (!(context instanceof AsyncLoggerContext)) {
+            return;
+        }
+        RingBufferAdmin ring = ((AsyncLoggerContext) context).createRingBufferAdmin();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (ring.getRemainingCapacity() < ring.getBufferSize() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
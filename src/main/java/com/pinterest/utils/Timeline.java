@@ -0,0 +1,295 @@
+package com.pinterest.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where a run spends its time, across threads: driver launch, BaseTest hooks, tests, page-object
+ * steps, screenshots and report flushes are recorded as timed events and exported at exit into
+ * the run directory (test-output/results/(runId)/):
+ *
+ *   timeline-(shard).trace.json   Chrome trace events, open in chrome://tracing or ui.perfetto.dev
+ *   timeline-(shard).otlp.json    OTLP/JSON spans, for any OpenTelemetry tooling; no collector needed
+ *
+ * Recording is an append to a bounded queue (timeline.max.events, default 200000).
+ * timeline.enabled=false turns it off.
+ */
+public final class Timeline {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("timeline.enabled", true);
+    private static final int MAX_EVENTS = ConfigReader.getInt("timeline.max.events", 200_000);
+
+    /** nanoTime -> epoch nanos, fixed at class load */
+    private static final long EPOCH_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    private static final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger size = new AtomicInteger();
+    private static final AtomicInteger dropped = new AtomicInteger();
+
+    static final class Event {
+        final String name;
+        final String category;
+        final long threadId;
+        final String threadName;
+        final long startEpochNanos;
+        final long endEpochNanos;
+        final Map<String, Object> args;
+
+        Event(String name, String category, long startEpochNanos, long endEpochNanos, Map<String, Object> args) {
+            Thread thread = Thread.currentThread();
+            this.name = name;
+            this.category = category;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            this.startEpochNanos = startEpochNanos;
+            this.endEpochNanos = Math.max(startEpochNanos, endEpochNanos);
+            this.args = args;
+        }
+    }
+
+    /**
+     * An open event, recorded on close:
+     *
+     *   try (Timeline.Scope scope = Timeline.begin("Driver launch", "driver")) { ... }
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final long startNanos = System.nanoTime();
+        private boolean closed;
+
+        private Scope(String name, String category) {
+            this.name = name;
+            this.category = category;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                record(name, category, startNanos, System.nanoTime(), null);
+            }
+        }
+    }
+
+    public static Scope begin(String name, String category) {
+        return new Scope(name, category);
+    }
+
+    /**
+     * Record an event on the calling thread from System.nanoTime readings
+     */
+    public static void record(String name, String category, long startNanos, long endNanos, Map<String, Object> args) {
+        add(name, category, EPOCH_NANOS + (startNanos - ORIGIN_NANOS), EPOCH_NANOS + (endNanos - ORIGIN_NANOS), args);
+    }
+
+    /**
+     * Record an event from wall-clock milliseconds (e.g. TestNG result times)
+     */
+    public static void recordMillis(String name, String category, long startMillis, long endMillis, Map<String, Object> args) {
+        add(name, category, startMillis * 1_000_000L, endMillis * 1_000_000L, args);
+    }
+
+    private static void add(String name, String category, long start, long end, Map<String, Object> args) {
+        if (!ENABLED) {
+            return;
+        }
+        if (size.incrementAndGet() > MAX_EVENTS) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        events.add(new Event(name, category, start, end, args));
+    }
+
+    public static int getEventCount() {
+        return size.get();
+    }
+
+    /**
+     * Write both formats into the run directory; returns the files written
+     */
+    public static synchronized List<Path> export() {
+        List<Path> written = new ArrayList<>();
+        if (!ENABLED || events.isEmpty()) {
+            return written;
+        }
+        List<Event> snapshot = new ArrayList<>(events);
+        snapshot.sort(Comparator.comparingLong((Event e) -> e.startEpochNanos)
+                .thenComparing(Comparator.comparingLong((Event e) -> e.endEpochNanos).reversed()));
+        Path dir = ResultsJournal.runDirectory();
+        String base = "timeline-" + RunContext.shardId();
+        try {
+            Files.createDirectories(dir);
+            Path trace = dir.resolve(base + ".trace.json");
+            writeChromeTrace(snapshot, trace);
+            written.add(trace);
+            Path otlp = dir.resolve(base + ".otlp.json");
+            writeOtlp(snapshot, otlp);
+            written.add(otlp);
+            System.out.println("Timeline: " + snapshot.size() + " events"
+                    + (dropped.get() > 0 ? " (" + dropped.get() + " dropped)" : "") + " -> " + trace);
+        } catch (IOException e) {
+            System.err.println("Could not write timeline to " + dir + ": " + e.getMessage());
+        }
+        return written;
+    }
+
+    /**
+     * Trace Event Format: complete ("X") events in microseconds, plus thread name metadata
+     */
+    static void writeChromeTrace(List<Event> events, Path target) throws IOException {
+        long pid = ProcessHandle.current().pid();
+        try (JsonGenerator json = new JsonFactory().createGenerator(target.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("displayTimeUnit", "ms");
+            json.writeArrayFieldStart("traceEvents");
+
+            Map<Long, String> threads = new LinkedHashMap<>();
+            for (Event e : events) {
+                threads.putIfAbsent(e.threadId, e.threadName);
+            }
+            json.writeStartObject();
+            json.writeStringField("ph", "M");
+            json.writeStringField("name", "process_name");
+            json.writeNumberField("pid", pid);
+            json.writeObjectFieldStart("args");
+            json.writeStringField("name", "tests " + RunContext.runId() + " " + RunContext.shardId());
+            json.writeEndObject();
+            json.writeEndObject();
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                json.writeStartObject();
+                json.writeStringField("ph", "M");
+                json.writeStringField("name", "thread_name");
+                json.writeNumberField("pid", pid);
+                json.writeNumberField("tid", thread.getKey());
+                json.writeObjectFieldStart("args");
+                json.writeStringField("name", thread.getValue());
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+
+            for (Event e : events) {
+                json.writeStartObject();
+                json.writeStringField("ph", "X");
+                json.writeStringField("name", e.name);
+                json.writeStringField("cat", e.category);
+                json.writeNumberField("pid", pid);
+                json.writeNumberField("tid", e.threadId);
+                json.writeNumberField("ts", e.startEpochNanos / 1000.0);
+                json.writeNumberField("dur", (e.endEpochNanos - e.startEpochNanos) / 1000.0);
+                if (e.args != null && !e.args.isEmpty()) {
+                    json.writeObjectFieldStart("args");
+                    for (Map.Entry<String, Object> arg : e.args.entrySet()) {
+                        json.writeStringField(arg.getKey(), String.valueOf(arg.getValue()));
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * OTLP/JSON (ExportTraceServiceRequest). One trace per run; the parent of a span is the
+     * innermost earlier event on the same thread that encloses it.
+     */
+    static void writeOtlp(List<Event> events, Path target) throws IOException {
+        String traceId = hex(ThreadLocalRandom.current().nextLong()) + hex(ThreadLocalRandom.current().nextLong());
+        Map<Long, Deque<Object[]>> open = new HashMap<>(); // threadId -> stack of {event, spanId}
+
+        try (JsonGenerator json = new JsonFactory().createGenerator(target.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            attribute(json, "service.name", "pinterest-automation");
+            attribute(json, "run.id", RunContext.runId());
+            attribute(json, "run.shard", RunContext.shardId());
+            attribute(json, "process.pid", String.valueOf(ProcessHandle.current().pid()));
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", Timeline.class.getName());
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+
+            for (Event e : events) {
+                Deque<Object[]> stack = open.computeIfAbsent(e.threadId, k -> new ArrayDeque<>());
+                while (!stack.isEmpty() && ((Event) stack.peek()[0]).endEpochNanos < e.endEpochNanos) {
+                    stack.pop();
+                }
+                String spanId = hex(ThreadLocalRandom.current().nextLong());
+
+                json.writeStartObject();
+                json.writeStringField("traceId", traceId);
+                json.writeStringField("spanId", spanId);
+                if (!stack.isEmpty()) {
+                    json.writeStringField("parentSpanId", (String) stack.peek()[1]);
+                }
+                json.writeStringField("name", e.name);
+                json.writeNumberField("kind", 1); // SPAN_KIND_INTERNAL
+                json.writeStringField("startTimeUnixNano", Long.toString(e.startEpochNanos));
+                json.writeStringField("endTimeUnixNano", Long.toString(e.endEpochNanos));
+                json.writeArrayFieldStart("attributes");
+                attribute(json, "category", e.category);
+                attribute(json, "thread.name", e.threadName);
+                attribute(json, "thread.id", String.valueOf(e.threadId));
+                if (e.args != null) {
+                    for (Map.Entry<String, Object> arg : e.args.entrySet()) {
+                        attribute(json, arg.getKey(), String.valueOf(arg.getValue()));
+                    }
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+
+                stack.push(new Object[]{e, spanId});
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void attribute(JsonGenerator json, String key, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        json.writeStringField("stringValue", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static String hex(long value) {
+        return String.format("%016x", value);
+    }
+
+    private Timeline() {}
+}
@@ -0,0 +1,170 @@
+package com.pinterest.utils;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Front-end timings of the page a step left the browser on, read from PerformanceObservers
+ * injected into the page (buffered, so entries from before the injection count too):
+ *
+ *   ttfb, domContentLoaded, load   Navigation Timing of the current document (ms)
+ *   lcp                            Largest Contentful Paint of the document load
+ *   cls, inp                       Cumulative Layout Shift (largest session window), slowest
+ *                                  interaction (max, not p98)
+ *   longTasks, longTaskMs          Long tasks on the main thread
+ *   resources, transferBytes       Resource Timing entries and bytes over the wire
+ *
+ * The load metrics (ttfb, domContentLoaded, load, lcp) belong to the first collection in a
+ * document only; a step that stayed in the same document (client-side route change) reports
+ * them as absent instead of repeating the landing page's. The other metrics count what happened
+ * since the previous collection in the document.
+ *
+ * Each collection is journalled as a "vitals" event and kept for the current test's report. Once
+ * the test has passed, BaseTest trends the millisecond metrics across runs with PerfHistory under
+ * vitals;(step);(metric), so their regressions reach perf.gate like step durations do.
+ * webvitals.enabled=false turns collection off.
+ */
+public final class WebVitals {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("webvitals.enabled", true);
+
+    /** Metrics in milliseconds, compared with earlier runs */
+    private static final List<String> TRENDED = List.of("ttfb", "domContentLoaded", "load", "lcp", "inp", "longTaskMs");
+
+    private static final String SCRIPT =
+            "var done = arguments[arguments.length - 1];\n"
+            + "var v = window.__pinVitals;\n"
+            + "if (!v) {\n"
+            + "  v = window.__pinVitals = {reported: false, since: 0, lcp: 0, cls: 0, session: 0, sessionStart: 0,\n"
+            + "                            sessionLast: 0, inp: 0, longTasks: 0, longTaskMs: 0};\n"
+            + "  var observe = function (type, onEntry, options) {\n"
+            + "    try {\n"
+            + "      new PerformanceObserver(function (list) { list.getEntries().forEach(onEntry); })\n"
+            + "          .observe(Object.assign({type: type, buffered: true}, options || {}));\n"
+            + "    } catch (e) { /* entry type not supported by this browser */ }\n"
+            + "  };\n"
+            + "  observe('largest-contentful-paint', function (e) { v.lcp = Math.max(v.lcp, e.startTime); });\n"
+            + "  observe('layout-shift', function (e) {\n"
+            + "    if (e.hadRecentInput) return;\n"
+            + "    if (v.session && e.startTime - v.sessionLast < 1000 && e.startTime - v.sessionStart < 5000) {\n"
+            + "      v.session += e.value;\n"
+            + "    } else {\n"
+            + "      v.session = e.value;\n"
+            + "      v.sessionStart = e.startTime;\n"
+            + "    }\n"
+            + "    v.sessionLast = e.startTime;\n"
+            + "    v.cls = Math.max(v.cls, v.session);\n"
+            + "  });\n"
+            + "  observe('event', function (e) { if (e.interactionId) v.inp = Math.max(v.inp, e.duration); },\n"
+            + "          {durationThreshold: 40});\n"
+            + "  observe('longtask', function (e) { v.longTasks++; v.longTaskMs += e.duration; });\n"
+            + "}\n"
+            + "setTimeout(function () {\n" // buffered entries are delivered asynchronously
+            + "  var now = performance.now();\n"
+            + "  var out = {};\n"
+            + "  var bytes = 0;\n"
+            + "  if (!v.reported) {\n" // the document's load belongs to the first step that sees it
+            + "    var nav = performance.getEntriesByType('navigation')[0] || {};\n"
+            + "    out.ttfb = nav.responseStart || 0;\n"
+            + "    out.domContentLoaded = nav.domContentLoadedEventEnd || 0;\n"
+            + "    out.load = nav.loadEventEnd || 0;\n"
+            + "    out.lcp = v.lcp;\n"
+            + "    bytes += nav.transferSize || 0;\n"
+            + "  }\n"
+            + "  var resources = performance.getEntriesByType('resource').filter(function (r) {\n"
+            + "    return r.startTime >= v.since && r.startTime < now;\n"
+            + "  });\n"
+            + "  resources.forEach(function (r) { bytes += r.transferSize || 0; });\n"
+            + "  out.cls = v.cls;\n"
+            + "  out.inp = v.inp;\n"
+            + "  out.longTasks = v.longTasks;\n"
+            + "  out.longTaskMs = v.longTaskMs;\n"
+            + "  out.resources = resources.length;\n"
+            + "  out.transferBytes = bytes;\n"
+            + "  v.reported = true;\n" // the next step in this document only sees what happens from here
+            + "  v.since = now;\n"
+            + "  v.cls = v.session = v.inp = v.longTasks = v.longTaskMs = 0;\n"
+            + "  done(out);\n"
+            + "}, 100);\n";
+
+    private static final ThreadLocal<Map<String, Map<String, Number>>> collected =
+            ThreadLocal.withInitial(LinkedHashMap::new);
+    /** PerfHistory key -> values of the current test, recorded by trend() */
+    private static final ThreadLocal<Map<String, List<Long>>> pending =
+            ThreadLocal.withInitial(LinkedHashMap::new);
+
+    /**
+     * Read the vitals of the current page for a step; empty when disabled or not available
+     */
+    public static Map<String, Number> collect(WebDriver driver, String step) {
+        if (!ENABLED) {
+            return Map.of();
+        }
+        Map<String, Number> vitals = new LinkedHashMap<>();
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT);
+            if (result instanceof Map) {
+                for (Map.Entry<?, ?> e : ((Map<?, ?>) result).entrySet()) {
+                    if (e.getValue() instanceof Number) {
+                        vitals.put(e.getKey().toString(), (Number) e.getValue());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not collect web vitals for " + step + ": " + e.getMessage());
+            return Map.of();
+        }
+
+        collected.get().put(step, vitals);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", ThreadContext.get(TestLogBuffer.TEST_ID_KEY));
+        fields.put("step", step);
+        fields.putAll(vitals);
+        ResultsJournal.get().append("vitals", fields);
+        for (String metric : TRENDED) {
+            Number value = vitals.get(metric);
+            if (value != null && value.doubleValue() > 0) {
+                pending.get().computeIfAbsent("vitals;" + step + ";" + metric, k -> new ArrayList<>())
+                        .add(Math.round(value.doubleValue()));
+            }
+        }
+        return vitals;
+    }
+
+    /**
+     * Record this test's trended metrics with PerfHistory; returns the regressions found.
+     * Only called for passing tests, failed ones are dropped by drain().
+     */
+    public static List<PerfHistory.Regression> trend() {
+        List<PerfHistory.Regression> found = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> metric : pending.get().entrySet()) {
+            for (long value : metric.getValue()) {
+                PerfHistory.Regression regression = PerfHistory.record(metric.getKey(), value);
+                if (regression != null) {
+                    found.add(regression);
+                }
+            }
+        }
+        pending.get().clear();
+        return found;
+    }
+
+    /**
+     * Vitals collected on this thread since the last call, by step (for the current test's report);
+     * also discards values not trended, e.g. of a failed test
+     */
+    public static Map<String, Map<String, Number>> drain() {
+        Map<String, Map<String, Number>> steps = new LinkedHashMap<>(collected.get());
+        collected.get().clear();
+        pending.get().clear();
+        return steps;
+    }
+
+    private WebVitals() {}
+}
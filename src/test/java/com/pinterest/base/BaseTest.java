@@ -1,32 +1,61 @@
 package com.pinterest.base;
 
+import com.pinterest.stub.PinterestStubServer;
+import com.pinterest.utils.Artifacts;
+import com.pinterest.utils.BrowserResourceSampler;
 import com.pinterest.utils.ConfigReader;
 import com.pinterest.utils.ExtentManager;
 import com.pinterest.utils.DriverFactory;
+import com.pinterest.utils.ResultsJournal;
+import com.pinterest.utils.Budget;
+import com.pinterest.utils.CommandBudget;
+import com.pinterest.utils.CommandMetrics;
+import com.pinterest.utils.MetricsServer;
+import com.pinterest.utils.FailureBundle;
+import com.pinterest.utils.PerfHistory;
+import com.pinterest.utils.ScreencastRecorder;
+import com.pinterest.utils.ScreenshotService;
+import com.pinterest.utils.Span;
+import com.pinterest.utils.Spans;
+import com.pinterest.utils.TestConfig;
+import com.pinterest.utils.TestLogBuffer;
+import com.pinterest.utils.Timeline;
+import com.pinterest.utils.WebVitals;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
 
+import org.apache.logging.log4j.ThreadContext;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
-import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.FileUtils; // requires commons-io (added in Step 1)
-
-public class BaseTest {
+public class BaseTest implements IHookable {
 
     protected WebDriver driver;
     protected WebDriverWait wait;
+    private ScreencastRecorder screencast;   // null unless screencast.enabled and the driver has DevTools
+    private FailureBundle failureBundle;     // console/network rings, null without DevTools
+    private BrowserResourceSampler resources; // CPU/memory samples, null unless browser.sampler.enabled
 
     // === Extent fields ===
     protected ExtentReports extent;               // already in your class
@@ -36,35 +65,111 @@ public class BaseTest {
     protected void setTest(ExtentTest t) { tlTest.set(t); }                    // NEW
     protected void unloadTest() { tlTest.remove(); }                           // NEW
 
+    // === Results journal: one id per test invocation ===
+    private static final AtomicInteger invocations = new AtomicInteger();
+    private static final ThreadLocal<String> tlTestId = new ThreadLocal<>();
+    private static final ThreadLocal<Budget> tlBudget = new ThreadLocal<>(); // from @CommandBudget
+
+    private static PinterestStubServer stub;   // offline stand-in, null unless stub.enabled
+
     @BeforeSuite
     public void setupReport() {
+        stub = PinterestStubServer.startIfEnabled(); // before any driver: it sets the host mapping
+        MetricsServer.startIfEnabled();
         extent = ExtentManager.getExtentReport(); // keep using your manager
     }
 
     @BeforeClass(alwaysRun = true)  // your existing lifecycle
     public void setUp() {
-        String browser = ConfigReader.get("browser");
-        boolean headless = ConfigReader.getBoolean("headless");
+        try (Timeline.Scope hook = Timeline.begin(getClass().getSimpleName() + " setUp", "hook")) {
+            TestConfig config = ConfigReader.config();
 
-        driver = DriverFactory.createInstance(browser, headless);
-        if (driver == null) {
-            throw new RuntimeException("WebDriver initialization failed. Check DriverFactory.");
-        }
+            driver = DriverFactory.createInstance(config.getBrowser(), config.isHeadless());
+            if (driver == null) {
+                throw new RuntimeException("WebDriver initialization failed. Check DriverFactory.");
+            }
 
-        int explicitWait = Integer.parseInt(ConfigReader.get("explicit.wait"));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+            wait = new WebDriverWait(driver, config.getExplicitWait());
+            screencast = ScreencastRecorder.startIfEnabled(driver);
+            failureBundle = FailureBundle.startIfEnabled(driver);
+            resources = BrowserResourceSampler.startIfEnabled(driver);
 
-        driver.get(getBaseUrl());
+            driver.get(getBaseUrl());
+        }
     }
 
     @AfterClass(alwaysRun = true)   // your existing lifecycle
     public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+        try (Timeline.Scope hook = Timeline.begin(getClass().getSimpleName() + " tearDown", "hook")) {
+            if (screencast != null) {
+                screencast.close();
+                screencast = null;
+            }
+            failureBundle = null;   // listeners go away with the DevTools session
+            if (resources != null) {
+                resources.close();
+                resources = null;
+            }
+            if (driver != null) {
+                driver.quit();
+                MetricsServer.driverQuit();
+            }
+            writeStepSummary();
+            ExtentManager.requestFlush();   // written by the background report writer
+        }
+    }
+
+    /**
+     * Suite-level section of the report, applied by the report writer like finished tests
+     */
+    private void addRunnerOutput(String html) {
+        ExtentManager.update(report -> report.addTestRunnerOutput(html));
+    }
+
+    /**
+     * Per-class step timings: a table in the report's log view and a folded-stack file for flame graph tools
+     */
+    private void writeStepSummary() {
+        String summary = Spans.summary(getClass().getName());
+        if (summary.isEmpty()) {
+            return;
         }
         if (extent != null) {
-            extent.flush();         // keep final flush here
+            addRunnerOutput("<b>Step timings: " + getClass().getSimpleName() + "</b><pre>" + summary + "</pre>");
+        }
+        Path folded = ResultsJournal.runDirectory().resolve("flame-" + getClass().getSimpleName() + ".folded");
+        try {
+            Files.createDirectories(folded.getParent());
+            Files.write(folded, Spans.foldedStacks(getClass().getName()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not write " + folded + ": " + e.getMessage());
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void finishReport() {
+        long hookStart = System.nanoTime();
+        ScreenshotService.awaitIdle(Duration.ofSeconds(30)); // let queued screenshots land first
+        ScreencastRecorder.awaitIdle(Duration.ofSeconds(30));
+        FailureBundle.awaitIdle(Duration.ofSeconds(30));
+        if (Artifacts.getCaptureCount() > 0) {
+            System.out.println(Artifacts.captureSummary());
+        }
+        String commands = CommandMetrics.summary();
+        if (!commands.isEmpty()) {
+            System.out.println("WebDriver command latency:\n" + commands);
+            if (extent != null) {
+                addRunnerOutput("<b>WebDriver command latency</b><pre>" + commands + "</pre>");
+            }
         }
+        writePerfSummary();
+        ExtentManager.flushNow();       // final synchronous write at suite end
+        if (stub != null) {
+            stub.close();
+            stub = null;
+        }
+        MetricsServer.stop();
+        Timeline.record("finishReport", "hook", hookStart, System.nanoTime(), null); // exported at exit
     }
 
     // =========================
@@ -72,85 +177,468 @@ public class BaseTest {
     // =========================
     @BeforeMethod(alwaysRun = true)
     public void startTest(Method method) {
+        long hookStart = System.nanoTime();
         // Example name: LogoutTest - validLogout
         String testName = method.getDeclaringClass().getSimpleName() + " - " + method.getName();
-        ExtentTest test = extent.createTest(testName)
+        if (extent == null) {
+            extent = ExtentManager.getExtentReport(); // @BeforeSuite only ran on the first test class instance
+        }
+        // Logged into a staging copy while the test runs, added to the report by afterMethod
+        ExtentTest test = ExtentManager.stageTest(testName)
                                 .assignCategory(method.getDeclaringClass().getSimpleName()); // optional category
         setTest(test);
+
+        MetricsServer.testStarted();
+        Spans.beginTest();
+        CommandMetrics.beginTest();
+        Budget.reset();
+        Budget.drainViolations();
+        WebVitals.drain();
+        CommandBudget budget = method.getAnnotation(CommandBudget.class);
+        if (budget != null) {
+            tlBudget.set(Budget.enter(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    budget.commands(), budget.millis() < 0 ? null : Duration.ofMillis(budget.millis())));
+        }
+        if (screencast != null) {
+            screencast.discard(); // only frames from this test are kept
+        }
+        if (failureBundle != null) {
+            failureBundle.clear();
+        }
+        if (resources != null) {
+            resources.beginTest();
+        }
+        String testId = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "#" + invocations.incrementAndGet();
+        tlTestId.set(testId);
+        TestLogBuffer.begin(testId);
+        ThreadContext.put(TestLogBuffer.TEST_ID_KEY, testId); // JSON logs and the per-test log buffer
+        ResultsJournal.get().append("test_start", ResultsJournal.fields(
+                "test", testId, "name", testName,
+                "class", method.getDeclaringClass().getName(), "method", method.getName()));
+        Timeline.record("startTest", "hook", hookStart, System.nanoTime(), null);
     }
 
     @AfterMethod(alwaysRun = true)
     public void logStatusAndAttachArtifacts(ITestResult result) {
+        long hookStart = System.nanoTime();
         ExtentTest test = getTest();
         try {
-            if (test != null) {
-                switch (result.getStatus()) {
-                    case ITestResult.SUCCESS:
-                        test.pass("✅ Test Passed");
-                        break;
-                    case ITestResult.SKIP:
-                        test.skip("⏭ Test Skipped: " +
-                                (result.getThrowable() != null ? result.getThrowable().getMessage() : ""));
-                        break;
-                    case ITestResult.FAILURE:
-                        String message = (result.getThrowable() != null)
-                                ? result.getThrowable().toString()
-                                : "Test Failed";
-
-                        String screenshotPath = takeScreenshot(result.getMethod().getMethodName());
-                        if (screenshotPath != null && !screenshotPath.isEmpty()) {
-                            test.fail("❌ Failure: " + message,
-                                    MediaEntityBuilder.createScreenCaptureFromPath(screenshotPath).build());
-                        } else {
-                            test.fail("❌ Failure: " + message + " (screenshot not available)");
-                        }
-                        break;
+            // Each attachment is guarded on its own so one failing never hides the others or the status
+            guard(test, "record step timings", () -> {
+                List<Span> spans = Spans.endTest(getClass().getName());
+                if (test != null) {
+                    for (Span span : spans) {
+                        addSpanNode(test, span);
+                    }
                 }
+                journalSpans(spans);
+            });
+            guard(test, "attach WebDriver command timings", () -> {
+                String commands = CommandMetrics.endTest();
+                if (test != null && !commands.isEmpty()) {
+                    test.info(commands);
+                }
+            });
+            guard(test, "attach web vitals", () -> attachWebVitals(test));
+            guard(test, "attach browser resources", () -> attachBrowserResources(test));
+            if (test != null) {
+                logStatus(result, test);
             }
-        } catch (Exception e) {
-            if (test != null) test.warning("Could not attach screenshot due to: " + e.getMessage());
         } finally {
+            if (screencast != null) {
+                screencast.discard();   // passing tests never pay for encoding
+            }
+            TestLogBuffer.discard(tlTestId.get());  // no-op after a dump
+            ThreadContext.remove(TestLogBuffer.TEST_ID_KEY);
+            journalTestEnd(result, test);
+            MetricsServer.testFinished(statusName(result));
+            if (test != null) {
+                ExtentManager.publish(test); // copied into the report and written off the test thread
+            }
             unloadTest();               // prevent leakage in parallel runs
-            if (extent != null) {
-                extent.flush();         // flush after each test for immediate writes
+            Timeline.recordMillis(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName(),
+                    "test", result.getStartMillis(), result.getEndMillis(), Map.of("status", statusName(result)));
+            Timeline.record("afterMethod", "hook", hookStart, System.nanoTime(), null);
+        }
+    }
+
+    private void logStatus(ITestResult result, ExtentTest test) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                test.pass("✅ Test Passed");
+                break;
+            case ITestResult.SKIP:
+                test.skip("⏭ Test Skipped: " +
+                        (result.getThrowable() != null ? result.getThrowable().getMessage() : ""));
+                break;
+            case ITestResult.FAILURE:
+                String message = (result.getThrowable() != null)
+                        ? result.getThrowable().toString()
+                        : "Test Failed";
+                String name = result.getMethod().getMethodName();
+
+                Artifacts.Artifact screenshot = null;
+                try {
+                    screenshot = captureFailure(name);
+                } catch (RuntimeException e) {
+                    test.warning("Could not attach screenshot due to: " + e.getMessage());
+                }
+                if (screenshot != null) {
+                    test.fail("❌ Failure: " + message,
+                            MediaEntityBuilder.createScreenCaptureFromPath(screenshot.getPath()).build());
+                    test.info("Screenshot captured in " + screenshot.getCaptureLatency().toMillis() + " ms");
+                    journalArtifact(screenshot);
+                } else {
+                    test.fail("❌ Failure: " + message + " (screenshot not available)");
+                }
+                guard(test, "attach screencast", () -> attachScreencast(test, name));
+                guard(test, "attach failure bundle", () -> attachFailureBundle(test, name));
+                guard(test, "attach buffered log", () -> attachBufferedLog(test));
+                break;
+        }
+    }
+
+    /**
+     * Run one reporting step; a failure becomes a warning naming that step
+     */
+    private static void guard(ExtentTest test, String what, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            warn(test, "Could not " + what + " due to: " + e);
+        }
+    }
+
+    private static void warn(ExtentTest test, String message) {
+        System.err.println(message);
+        if (test != null) {
+            test.warning(message);
+        }
+    }
+
+    /**
+     * Steps are taken from the Extent test's log at the end, so tests keep logging through getTest()
+     */
+    private void journalTestEnd(ITestResult result, ExtentTest test) {
+        String testId = tlTestId.get();
+        if (testId == null) {
+            return;
+        }
+        ResultsJournal journal = ResultsJournal.get();
+        if (test != null) {
+            journalSteps(journal, testId, test.getModel(), null);
+        }
+        journal.append("test_end", ResultsJournal.fields(
+                "test", testId, "status", statusName(result),
+                "durationMs", result.getEndMillis() - result.getStartMillis(),
+                "error", result.getThrowable() == null ? null : result.getThrowable().toString()));
+        tlTestId.remove();
+    }
+
+    private static String statusName(ITestResult result) {
+        return result.getStatus() == ITestResult.SUCCESS ? "pass"
+                : result.getStatus() == ITestResult.SKIP ? "skip" : "fail";
+    }
+
+    private void journalSteps(ResultsJournal journal, String testId, com.aventstack.extentreports.model.Test model, String node) {
+        for (Log log : List.copyOf(model.getLogs())) {
+            journal.append("step", ResultsJournal.fields(
+                    "test", testId, "node", node,
+                    "stepTs", log.getTimestamp() == null ? null : log.getTimestamp().getTime(),
+                    "status", log.getStatus().toString().toLowerCase(),
+                    "details", log.getDetails()));
+        }
+        for (com.aventstack.extentreports.model.Test child : List.copyOf(model.getChildren())) {
+            journalSteps(journal, testId, child, node == null ? child.getName() : node + " / " + child.getName());
+        }
+    }
+
+    /**
+     * One child node per span, named with its duration, nested like the spans
+     */
+    private void addSpanNode(ExtentTest parent, Span span) {
+        String attributes = span.getAttributes().isEmpty() ? "" : " " + span.getAttributes();
+        ExtentTest node = parent.createNode(span.getName() + attributes + " (" + formatMillis(span.getDurationMillis()) + ")");
+        node.getModel().setStartTime(new Date(span.getStartMillis()));
+        for (Span child : span.getChildren()) {
+            addSpanNode(node, child);
+        }
+        node.getModel().setEndTime(new Date(span.getStartMillis() + span.getDurationMillis()));
+    }
+
+    private static String formatMillis(long millis) {
+        return millis < 1000 ? millis + " ms" : String.format("%.2f s", millis / 1000.0);
+    }
+
+    private void journalSpans(List<Span> spans) {
+        String testId = tlTestId.get();
+        if (testId == null) {
+            return;
+        }
+        for (Span span : spans) {
+            ResultsJournal.get().append("span", ResultsJournal.fields(
+                    "test", testId, "path", span.path(), "start", span.getStartMillis(),
+                    "durationMs", span.getDurationMillis(),
+                    "attributes", span.getAttributes().isEmpty() ? null : span.getAttributes()));
+            journalSpans(span.getChildren());
+        }
+    }
+
+    /**
+     * One row per page-object step that collected web vitals during the test
+     */
+    private void attachWebVitals(ExtentTest test) {
+        Map<String, Map<String, Number>> steps = WebVitals.drain();
+        if (test == null || steps.isEmpty()) {
+            return;
+        }
+        String[] columns = {"ttfb", "domContentLoaded", "load", "lcp", "cls", "inp", "longTasks", "longTaskMs", "resources", "transferBytes"};
+        String[][] table = new String[steps.size() + 1][];
+        table[0] = new String[columns.length + 1];
+        table[0][0] = "Step";
+        System.arraycopy(columns, 0, table[0], 1, columns.length);
+        int row = 1;
+        for (Map.Entry<String, Map<String, Number>> step : steps.entrySet()) {
+            table[row] = new String[columns.length + 1];
+            table[row][0] = step.getKey();
+            for (int i = 0; i < columns.length; i++) {
+                Number value = step.getValue().get(columns[i]);
+                table[row][i + 1] = value == null ? "" : columns[i].equals("cls")
+                        ? String.format("%.3f", value.doubleValue()) : String.valueOf(Math.round(value.doubleValue()));
+            }
+            row++;
+        }
+        test.info("Web vitals (ms unless noted)");
+        test.info(MarkupHelper.createTable(table));
+    }
+
+    /**
+     * Peak/average JS heap and DOM nodes, layouts and CPU time of the browser during the test
+     */
+    private void attachBrowserResources(ExtentTest test) {
+        if (resources == null) {
+            return;
+        }
+        BrowserResourceSampler.Summary summary = resources.endTest();
+        if (test == null || summary == null) {
+            return;
+        }
+        test.info("Browser resources: " + summary);
+        test.info(MarkupHelper.createTable(summary.table()));
+    }
+
+    /**
+     * Runs the test method, then the checks that can fail a passing test. They throw from here:
+     * TestNG ignores status changes made in @AfterMethod, so the build would still pass.
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult result) {
+        long start = System.nanoTime();
+        callBack.runTestMethod(result);
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        boolean passed = result.getThrowable() == null;
+        ExtentTest test = getTest();
+        RuntimeException overrun = null;
+        try {
+            overrun = enforceBudget(test);
+        } catch (RuntimeException e) {
+            warn(test, "Could not check the command budget due to: " + e);
+        }
+        if (passed && overrun != null) {
+            throw overrun;
+        }
+        if (passed) {
+            RuntimeException regression = null;
+            try {
+                regression = checkPerformance(result, test, durationMs);
+            } catch (RuntimeException e) {
+                warn(test, "Could not compare timings with previous runs due to: " + e);
+            }
+            if (regression != null) {
+                throw regression;
+            }
+        }
+    }
+
+    /**
+     * Close the test's @CommandBudget; returns the overrun in fail mode, warnings are logged
+     */
+    private RuntimeException enforceBudget(ExtentTest test) {
+        Budget budget = tlBudget.get();
+        tlBudget.remove();
+        RuntimeException overrun = null;
+        if (budget != null) {
+            try {
+                budget.close();
+            } catch (RuntimeException e) {
+                overrun = e;
+            }
+        }
+        Budget.reset();
+        for (String violation : Budget.drainViolations()) {
+            if (test != null) {
+                test.warning(violation);
+            }
+        }
+        return overrun;
+    }
+
+    /**
+     * Compare the durations of a passing test and its steps with earlier runs (perf.gate);
+     * returns the failure to raise in fail mode, regressions are logged as warnings
+     */
+    private RuntimeException checkPerformance(ITestResult result, ExtentTest test, long durationMs) {
+        if (!PerfHistory.isEnabled()) {
+            return null;
+        }
+        String key = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        List<PerfHistory.Regression> found = new ArrayList<>();
+        PerfHistory.Regression regression = PerfHistory.record(key, durationMs);
+        if (regression != null) {
+            found.add(regression);
+        }
+        recordSteps(key, Spans.current(), found);
+        found.addAll(WebVitals.trend());
+        if (found.isEmpty()) {
+            return null;
+        }
+        for (PerfHistory.Regression r : found) {
+            if (test != null) {
+                test.warning("Slower than previous runs: " + r);
             }
         }
+        if (!PerfHistory.isFailMode()) {
+            return null;
+        }
+        return new RuntimeException("Performance regression: " + found.get(0)
+                + (found.size() > 1 ? " (+" + (found.size() - 1) + " more)" : ""));
+    }
+
+    private void recordSteps(String testKey, List<Span> spans, List<PerfHistory.Regression> found) {
+        for (Span span : spans) {
+            PerfHistory.Regression regression = PerfHistory.record(testKey + ";" + span.path(), span.getDurationMillis());
+            if (regression != null) {
+                found.add(regression);
+            }
+            recordSteps(testKey, span.getChildren(), found);
+        }
+    }
+
+    /**
+     * Store this run's timings and list the worst regressions in the report
+     */
+    private void writePerfSummary() {
+        List<PerfHistory.Regression> worst = PerfHistory.worstOffenders(10);
+        PerfHistory.save();
+        if (worst.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        for (PerfHistory.Regression r : worst) {
+            summary.append(r).append('\n');
+        }
+        System.out.println("Performance regressions against previous runs:\n" + summary);
+        if (extent != null) {
+            addRunnerOutput("<b>Performance regressions (worst first)</b><pre>" + summary + "</pre>");
+        }
+    }
+
+    private void journalArtifact(Artifacts.Artifact artifact) {
+        journalArtifact(artifact.getPath(), artifact.getKind().name(), artifact.getCaptureLatency().toMillis());
+    }
+
+    private void journalArtifact(String path, String kind, long captureMs) {
+        String testId = tlTestId.get();
+        if (testId != null) {
+            ResultsJournal.get().append("artifact", ResultsJournal.fields(
+                    "test", testId, "path", path, "kind", kind, "captureMs", captureMs));
+        }
     }
 
     // =========================
-    // NEW: Screenshot helper
+    // NEW: Screenshot helpers (all go through Artifacts)
     // =========================
     protected String takeScreenshot(String name) {
+        Artifacts.Artifact screenshot = captureFailure(name);
+        return screenshot == null ? "" : screenshot.getPath();
+    }
+
+    private Artifacts.Artifact captureFailure(String name) {
         try {
-            if (driver == null) return "";
-            File src = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+            if (driver == null) return null;
+            // Only the in-memory capture happens here; the file is written by a worker thread
+            return Artifacts.screenshot(driver, name);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
 
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    /**
+     * Log lines the test produced, kept in memory by the async logging profile
+     */
+    private void attachBufferedLog(ExtentTest test) {
+        List<String> lines = TestLogBuffer.dump(tlTestId.get());
+        if (!lines.isEmpty()) {
+            test.info("Log before failure (" + lines.size() + " lines)");
+            test.info(MarkupHelper.createCodeBlock(String.join("\n", lines)));
+        }
+    }
 
-            // Prefer the directory from ExtentManager if you added getScreenshotDir(); else fallback
-            String screenshotDir;
-            try {
-                // If you implemented getScreenshotDir() in ExtentManager (Step 2 optional)
-                screenshotDir = com.pinterest.utils.ExtentManager.getScreenshotDir();
-            } catch (Throwable ignored) {
-                // Fallback if the helper method doesn't exist
-                screenshotDir = System.getProperty("user.dir") + "/test-output/screenshots/";
-            }
+    /**
+     * Encode the last seconds before the failure as a GIF and link it
+     */
+    private void attachScreencast(ExtentTest test, String name) {
+        if (screencast == null) {
+            return;
+        }
+        int frames = screencast.getFrameCount();
+        Path gif = screencast.saveGif(name + "_screencast");
+        if (gif != null) {
+            test.info("Screencast before failure (" + frames + " frames)",
+                    MediaEntityBuilder.createScreenCaptureFromPath(gif.toString()).build());
+        }
+    }
+
+    /**
+     * Zip the DOM, console and network (HAR) of the failing page and link it
+     */
+    private void attachFailureBundle(ExtentTest test, String name) {
+        if (failureBundle == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        Path bundle = failureBundle.capture(name + "_failure");
+        long captureMs = (System.nanoTime() - start) / 1_000_000;
+        test.info("Failure bundle (DOM, console, HAR): <a href='" + bundle + "'>" + bundle.getFileName() + "</a>");
+        journalArtifact(bundle.toString(), FailureBundle.KIND, captureMs);
+    }
 
-            File folder = new File(screenshotDir);
-            if (!folder.exists()) folder.mkdirs();
+    /**
+     * Attach a screenshot of one element to the current test
+     */
+    protected void attachElementScreenshot(WebElement element, String label) {
+        attach(Artifacts.element(element, label), label);
+    }
+
+    /**
+     * Attach a screenshot of the whole scrollable page to the current test
+     */
+    protected void attachFullPageScreenshot(String label) {
+        attach(Artifacts.fullPage(driver, label), label);
+    }
 
-            String path = screenshotDir + name + "_" + timestamp + ".png";
-            FileUtils.copyFile(src, new File(path));
-            return path;
-        } catch (WebDriverException | IOException e) {
-            return "";
+    private void attach(Artifacts.Artifact artifact, String label) {
+        journalArtifact(artifact);
+        ExtentTest test = getTest();
+        if (test != null) {
+            test.info(label + " (" + artifact.getKind() + ", captured in " + artifact.getCaptureLatency().toMillis() + " ms)",
+                    MediaEntityBuilder.createScreenCaptureFromPath(artifact.getPath()).build());
         }
     }
 
     // ========= Existing helpers =========
     protected String getBaseUrl() {
-        return ConfigReader.get("base.url");
+        return ConfigReader.config().getBaseUrl();
     }
 
     protected void navigateToPath(String path) {
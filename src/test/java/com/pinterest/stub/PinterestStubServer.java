@@ -0,0 +1,666 @@
+package com.pinterest.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pinterest.utils.CSVReader;
+import com.pinterest.utils.ConfigReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline stand-in for the parts of Pinterest the suite drives, served over HTTPS from the test JVM.
+ *
+ * Fixture pages (src/test/resources/stub) reproduce the DOM the page objects look for: the
+ * __PWS_ROOT__ header buttons, login and signup modals with their inline errors, the search box,
+ * a scrollable pin grid with hover Save buttons and a board picker, the account menu, the profile
+ * page and the settings form. Accounts are the TestData.csv rows whose loginOutcome is SUCCESS.
+ *
+ * Chrome is pointed at it with --host-resolver-rules, so base.url and every URL assertion stay
+ * as they are for the live site. Enable with -Dconfig.profile=offline (or mvn test -Poffline):
+ *
+ *   stub.enabled=true   stub.port=0 (ephemeral)   stub.latency.ms=50   stub.latency.jitter.ms=25
+ */
+public final class PinterestStubServer implements AutoCloseable {
+
+    /** Picked up by DriverFactory; deliberately not in the property files so they resolve after start() */
+    public static final String RESOLVER_RULES_KEY = "browser.host.resolver.rules";
+    public static final String INSECURE_CERTS_KEY = "browser.accept.insecure.certs";
+
+    private static final String SESSION_COOKIE = "_pinterest_sess";
+    private static final String FIXTURES = "stub/";
+    private static final char[] STORE_PASSWORD = "changeit".toCharArray();
+    private static final Path KEYSTORE = Paths.get("target", "stub", "stub-keystore.p12");
+
+    private static final int FEED_PINS = 40;
+    private static final int SEARCH_PINS = 25;
+    private static final String[] COLORS = {"#d9c7b8", "#b8c9d9", "#c9d9b8", "#e3c1c1", "#c7c1e3", "#e3dcc1", "#c1e3dc"};
+    private static final List<String> VOCABULARY = Arrays.asList("food", "recipes", "travel", "holiday", "decor",
+            "ideas", "outfits", "fashion", "quotes", "garden", "wedding", "kitchen", "nails", "hair", "tattoo",
+            "aesthetic", "wallpaper", "drawing", "home", "art");
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static volatile PinterestStubServer running;
+
+    private final HttpsServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final Duration jitter;
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Account> sessions = new ConcurrentHashMap<>();
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+    private final List<String> boards = new ArrayList<>();
+    private final Set<String> vocabulary = new LinkedHashSet<>(VOCABULARY);
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Profile fields the settings page edits
+     */
+    static final class Account {
+        final String email;
+        final String password;
+        volatile String firstName;
+        volatile String lastName = "";
+        volatile String about = "";
+        volatile String username;
+
+        Account(String email, String password) {
+            this.email = email;
+            this.password = password;
+            String local = email.substring(0, email.indexOf('@'));
+            this.firstName = local;
+            this.username = local.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "");
+        }
+
+        String fullName() {
+            return (firstName + " " + lastName).trim();
+        }
+    }
+
+    private PinterestStubServer(int port, Duration latency, Duration jitter) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        seedFromTestData();
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "pinterest-stub-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext()));
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Start the stand-in when stub.enabled is set and point browsers created afterwards at it.
+     * Returns the running server (one per JVM), or null when disabled.
+     */
+    public static synchronized PinterestStubServer startIfEnabled() {
+        if (!ConfigReader.getBoolean("stub.enabled", false)) {
+            return null;
+        }
+        if (running != null) {
+            return running;
+        }
+        Duration latency = Duration.ofMillis(ConfigReader.getInt("stub.latency.ms", 0));
+        Duration jitter = Duration.ofMillis(ConfigReader.getInt("stub.latency.jitter.ms", 0));
+        try {
+            running = new PinterestStubServer(ConfigReader.getInt("stub.port", 0), latency, jitter);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not start the offline Pinterest stub: " + e.getMessage(), e);
+        }
+        System.setProperty(RESOLVER_RULES_KEY, running.hostResolverRules());
+        System.setProperty(INSECURE_CERTS_KEY, "true");
+        System.out.println("Offline Pinterest stub on https://127.0.0.1:" + running.getPort()
+                + " (latency " + latency.toMillis() + " ms +/- " + jitter.toMillis() + " ms)");
+        return running;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Chrome --host-resolver-rules value sending every pinterest.com host to this server
+     */
+    public String hostResolverRules() {
+        String target = "127.0.0.1:" + getPort();
+        return "MAP pinterest.com " + target + ", MAP *.pinterest.com " + target;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        synchronized (PinterestStubServer.class) {
+            if (running == this) {
+                running = null;
+                System.clearProperty(RESOLVER_RULES_KEY);
+                System.clearProperty(INSECURE_CERTS_KEY);
+            }
+        }
+    }
+
+    // ========== TEST DATA ==========
+
+    private void seedFromTestData() {
+        for (Map<String, String> row : CSVReader.getAllTestData()) {
+            String email = row.getOrDefault("email", "");
+            if ("SUCCESS".equals(row.get("loginOutcome")) && email.contains("@")) {
+                accounts.put(email.toLowerCase(Locale.ROOT), new Account(email, row.getOrDefault("password", "")));
+            }
+            for (String column : new String[]{"publicBoardName", "secretBoardName"}) {
+                String board = row.getOrDefault(column, "");
+                if (!board.isEmpty() && !boards.contains(board)) {
+                    boards.add(board);
+                }
+            }
+            for (String word : row.getOrDefault("validQuery", "").toLowerCase(Locale.ROOT).split("\\s+")) {
+                if (!word.isEmpty()) {
+                    vocabulary.add(word);
+                }
+            }
+        }
+        if (boards.isEmpty()) {
+            boards.add("Quick saves");
+        }
+    }
+
+    // ========== ROUTING ==========
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            delay();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Account account = currentAccount(exchange);
+
+            if (method.equals("POST")) {
+                Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                switch (path) {
+                    case "/resource/login":
+                        login(exchange, form);
+                        return;
+                    case "/resource/signup":
+                        signup(exchange, form);
+                        return;
+                    case "/resource/settings":
+                        saveSettings(exchange, account, form);
+                        return;
+                    case "/resource/pin/save":
+                        savePin(exchange, account, form);
+                        return;
+                    default:
+                        send(exchange, 404, "text/plain", "Not found");
+                        return;
+                }
+            }
+
+            switch (path) {
+                case "/_stub/app.js":
+                    send(exchange, 200, "application/javascript", template("app.js"));
+                    return;
+                case "/_stub/app.css":
+                    send(exchange, 200, "text/css", template("app.css"));
+                    return;
+                case "/favicon.ico":
+                    send(exchange, 204, "text/plain", "");
+                    return;
+                case "/":
+                    send(exchange, 200, "text/html", account == null ? landing("") : feed(account, null));
+                    return;
+                case "/login":
+                case "/login/":
+                    if (account != null) {
+                        redirect(exchange, "/");
+                    } else {
+                        send(exchange, 200, "text/html", landing("login"));
+                    }
+                    return;
+                case "/signup/":
+                    send(exchange, 200, "text/html", landing("signup"));
+                    return;
+                case "/logout/":
+                    String token = sessionToken(exchange);
+                    if (token != null) {
+                        sessions.remove(token);
+                    }
+                    exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0; Secure");
+                    redirect(exchange, "/");
+                    return;
+                default:
+                    break;
+            }
+
+            if (account == null) {
+                redirect(exchange, "/login/");
+            } else if (path.equals("/search/pins/")) {
+                String query = parseForm(exchange.getRequestURI().getRawQuery()).getOrDefault("q", "");
+                send(exchange, 200, "text/html", feed(account, query));
+            } else if (path.startsWith("/settings")) {
+                send(exchange, 200, "text/html", settings(account));
+            } else if (path.equals("/" + account.username + "/")) {
+                send(exchange, 200, "text/html", profile(account));
+            } else {
+                send(exchange, 404, "text/plain", "Not found");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Stub request " + exchange.getRequestURI() + " failed: " + e);
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() {
+        long millis = latency.toMillis();
+        if (jitter.toMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(-jitter.toMillis(), jitter.toMillis() + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== RESOURCES ==========
+
+    private void login(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String email = form.getOrDefault("email", "").trim();
+        Account account = accounts.get(email.toLowerCase(Locale.ROOT));
+        if (account == null) {
+            json(exchange, failure("email", "The email you entered does not belong to any account."));
+        } else if (!account.password.equals(form.getOrDefault("password", ""))) {
+            json(exchange, failure("password", "The password you entered is incorrect. Try again or Reset your password"));
+        } else {
+            startSession(exchange, account);
+            json(exchange, Map.of("ok", true));
+        }
+    }
+
+    private void signup(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String email = form.getOrDefault("email", "").trim();
+        String password = form.getOrDefault("password", "");
+        if (!email.matches("[^\\s@]+@[^\\s@]+\\.[^\\s@]+")) {
+            json(exchange, failure("email", "Hmm...that doesn't look like an email address."));
+        } else if (password.length() < 6) {
+            json(exchange, failure("password", "Your password is too short! You need 6+ characters."));
+        } else if (accounts.containsKey(email.toLowerCase(Locale.ROOT))) {
+            json(exchange, failure("email", "Looks like this email is already taken. Log in instead?"));
+        } else {
+            Account account = new Account(email, password);
+            accounts.put(email.toLowerCase(Locale.ROOT), account);
+            startSession(exchange, account);
+            json(exchange, Map.of("ok", true));
+        }
+    }
+
+    private void saveSettings(HttpExchange exchange, Account account, Map<String, String> form) throws IOException {
+        if (account == null) {
+            json(exchange, failure("session", "Log in to edit your profile"));
+            return;
+        }
+        String username = form.getOrDefault("username", account.username).trim();
+        if (!username.matches("[A-Za-z0-9_]{3,30}")) {
+            json(exchange, failure("username", "Usernames can only contain letters, numbers and underscores"));
+            return;
+        }
+        account.firstName = form.getOrDefault("first_name", account.firstName);
+        account.lastName = form.getOrDefault("last_name", account.lastName);
+        account.about = form.getOrDefault("about", account.about);
+        account.username = username;
+        json(exchange, Map.of("ok", true));
+    }
+
+    private void savePin(HttpExchange exchange, Account account, Map<String, String> form) throws IOException {
+        if (account == null) {
+            json(exchange, failure("session", "Log in to save Pins"));
+        } else if (!boards.contains(form.getOrDefault("board", ""))) {
+            json(exchange, failure("board", "Board not found"));
+        } else {
+            json(exchange, Map.of("ok", true));
+        }
+    }
+
+    private static Map<String, Object> failure(String field, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ok", false);
+        result.put("field", field);
+        result.put("message", message);
+        return result;
+    }
+
+    // ========== SESSIONS ==========
+
+    private void startSession(HttpExchange exchange, Account account) {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, account);
+        exchange.getResponseHeaders().add("Set-Cookie",
+                SESSION_COOKIE + "=" + token + "; Path=/; Secure; HttpOnly; SameSite=Lax");
+    }
+
+    private Account currentAccount(HttpExchange exchange) {
+        String token = sessionToken(exchange);
+        return token == null ? null : sessions.get(token);
+    }
+
+    private static String sessionToken(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    // ========== PAGES ==========
+
+    private String landing(String open) {
+        Map<String, String> values = new HashMap<>();
+        values.put("open", open);
+        values.put("pins", pins("Idea", FEED_PINS, false));
+        return render("landing.html", values);
+    }
+
+    /**
+     * Home feed, or search results when query is not null
+     */
+    private String feed(Account account, String query) {
+        Map<String, String> values = new HashMap<>();
+        values.put("header", header(account, query == null ? "" : query));
+        values.put("boards", boardList());
+        if (query == null) {
+            values.put("title", "Pinterest");
+            values.put("notice", "");
+            values.put("pins", pins("Idea", FEED_PINS, true));
+            return render("feed.html", values);
+        }
+
+        values.put("title", escape(query) + " - Pinterest");
+        if (!query.matches(".*[\\p{L}\\p{N}].*")) {
+            values.put("notice", "<div class=\"notice\">No results found. Try another search</div>");
+            values.put("pins", "");
+            return render("feed.html", values);
+        }
+        String corrected = correct(query);
+        values.put("notice", corrected.equals(query.trim().toLowerCase(Locale.ROOT)) ? ""
+                : "<div class=\"suggestion\">Did you mean <a href=\"/search/pins/?q=" + urlEncode(corrected) + "\">"
+                        + escape(corrected) + "</a>?</div>");
+        values.put("pins", pins(corrected, SEARCH_PINS, true));
+        return render("feed.html", values);
+    }
+
+    private String profile(Account account) {
+        Map<String, String> values = profileValues(account);
+        values.put("header", header(account, ""));
+        return render("profile.html", values);
+    }
+
+    private String settings(Account account) {
+        Map<String, String> values = profileValues(account);
+        values.put("header", header(account, ""));
+        return render("settings.html", values);
+    }
+
+    private String header(Account account, String query) {
+        Map<String, String> values = profileValues(account);
+        values.put("query", escape(query));
+        return render("header.html", values);
+    }
+
+    private static Map<String, String> profileValues(Account account) {
+        Map<String, String> values = new HashMap<>();
+        values.put("fullName", escape(account.fullName()));
+        values.put("firstName", escape(account.firstName));
+        values.put("lastName", escape(account.lastName));
+        values.put("about", escape(account.about));
+        values.put("username", escape(account.username));
+        values.put("avatar", avatar(account));
+        return values;
+    }
+
+    private String boardList() {
+        StringBuilder html = new StringBuilder();
+        for (String board : boards) {
+            html.append("<div role=\"button\" class=\"board\" data-board=\"").append(escape(board)).append("\">")
+                    .append(escape(board)).append("</div>");
+        }
+        return html.toString();
+    }
+
+    /**
+     * Grid items with deterministic heights so the page is tall enough to scroll
+     */
+    private static String pins(String topic, int count, boolean saveable) {
+        StringBuilder html = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            int height = 180 + Math.floorMod((topic + i).hashCode(), 7) * 40;
+            html.append("<div data-test-id=\"pin\" data-grid-item=\"true\" role=\"listitem\" data-pin-id=\"")
+                    .append(i).append("\">")
+                    .append("<div class=\"pin-image\" style=\"height: ").append(height).append("px; background: ")
+                    .append(COLORS[i % COLORS.length]).append("\"></div>");
+            if (saveable) {
+                html.append("<div class=\"pin-actions\"><button type=\"button\" aria-label=\"Save\" data-save>")
+                        .append("<div class=\"lIkAnG\">Save</div></button></div>");
+            }
+            html.append("<div class=\"pin-title\">").append(escape(topic)).append(" #").append(i).append("</div></div>");
+        }
+        return html.toString();
+    }
+
+    private static String avatar(Account account) {
+        String initial = account.fullName().isEmpty() ? "?" : account.fullName().substring(0, 1).toUpperCase(Locale.ROOT);
+        String svg = "<svg xmlns='http://www.w3.org/2000/svg' width='64' height='64'><rect width='64' height='64' fill='#e9e9e9'/>"
+                + "<text x='32' y='42' font-size='28' text-anchor='middle' font-family='sans-serif'>"
+                + escape(initial) + "</text></svg>";
+        return "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString(svg.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========== SPELLING ==========
+
+    /**
+     * Replace each word with the closest vocabulary word when it is a plausible misspelling
+     */
+    private String correct(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            String best = word;
+            int bestDistance = word.length() >= 6 ? 4 : 2; // accept up to 3 (long words) or 1 edit
+            if (!vocabulary.contains(word)) {
+                for (String candidate : vocabulary) {
+                    int distance = editDistance(word, candidate);
+                    if (distance < bestDistance) {
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            words.add(best);
+        }
+        return String.join(" ", words);
+    }
+
+    static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // ========== HTTP HELPERS ==========
+
+    private String render(String name, Map<String, String> values) {
+        String html = template(name);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            html = html.replace("{{" + entry.getKey() + "}}", entry.getValue());
+        }
+        return html;
+    }
+
+    private String template(String name) {
+        return templates.computeIfAbsent(name, n -> {
+            try (InputStream in = PinterestStubServer.class.getClassLoader().getResourceAsStream(FIXTURES + n)) {
+                if (in == null) {
+                    throw new RuntimeException("Stub fixture not found in classpath: " + FIXTURES + n);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read stub fixture " + n + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        if (status == 204) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void json(HttpExchange exchange, Map<String, ?> body) throws IOException {
+        send(exchange, 200, "application/json", mapper.writeValueAsString(body));
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> form = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return form;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length == 2 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return form;
+    }
+
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    // ========== TLS ==========
+
+    /**
+     * Self-signed certificate for pinterest.com and *.pinterest.com, made once with the JDK's keytool
+     * (browsers accept it through browser.accept.insecure.certs)
+     */
+    private static SSLContext sslContext() throws IOException {
+        if (!Files.exists(KEYSTORE)) {
+            generateKeystore();
+        }
+        try (InputStream in = Files.newInputStream(KEYSTORE)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(in, STORE_PASSWORD);
+            KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keys.init(store, STORE_PASSWORD);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keys.getKeyManagers(), null, null);
+            return context;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unusable stub keystore " + KEYSTORE + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void generateKeystore() throws IOException {
+        Files.createDirectories(KEYSTORE.getParent());
+        // Parallel forks may race here; each writes its own file and renames it into place
+        Path tmp = Files.createTempFile(KEYSTORE.getParent(), "stub-keystore", ".p12");
+        Files.delete(tmp);
+        String keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-noprompt",
+                "-alias", "pinterest-stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "3650",
+                "-dname", "CN=www.pinterest.com, O=pinterest-automation offline stub",
+                "-ext", "SAN=DNS:pinterest.com,DNS:*.pinterest.com",
+                "-storetype", "PKCS12", "-keystore", tmp.toString(),
+                "-storepass", new String(STORE_PASSWORD), "-keypass", new String(STORE_PASSWORD))
+                .redirectErrorStream(true)
+                .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IOException("keytool failed: " + output.trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating the stub keystore", e);
+        }
+        Files.move(tmp, KEYSTORE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -5,7 +5,7 @@ import com.pinterest.base.BaseTest;
 import com.pinterest.pages.LoginPage;
 import com.pinterest.pages.EditProfilePage;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -27,8 +27,8 @@ public class EditProfileTest extends BaseTest {
         logger.info("Setting up Edit Profile Tests");
         
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.validUser().email();
+        String password = TestData.validUser().password();
         
         logger.info("Email: {}", email);
         logger.debug("Password configured for user");
@@ -82,10 +82,10 @@ public class EditProfileTest extends BaseTest {
         logger.info("TEST: Edit Complete Profile - Started");
         test.info("Test: Edit Complete Profile - Started");
         
-        String firstName = CSVReader.getFirstName();
-        String lastName = CSVReader.getLastName();
-        String about = CSVReader.getAbout();
-        String username = CSVReader.getUsername();
+        String firstName = TestData.profileUpdate().firstName();
+        String lastName = TestData.profileUpdate().lastName();
+        String about = TestData.profileUpdate().about();
+        String username = TestData.profileUpdate().username();
         
         logger.info("First Name: {}", firstName);
         logger.info("Last Name: {}", lastName);
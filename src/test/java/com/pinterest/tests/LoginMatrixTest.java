@@ -0,0 +1,238 @@
+package com.pinterest.tests;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.pinterest.base.BaseTest;
+import com.pinterest.pages.LoginPage;
+import com.pinterest.utils.CSVReader;
+import com.pinterest.utils.ConfigReader;
+import com.pinterest.utils.DriverPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Data-driven login regression: every TestData.csv row with a loginOutcome is run as a
+ * scenario, fanned out across a pool of browser sessions (matrix.threads, default: cores, max 4).
+ *
+ * Run on its own with: mvn test -Dsuite.xml=testng-login-matrix.xml
+ */
+public class LoginMatrixTest extends BaseTest {
+
+    private static final Logger logger = LogManager.getLogger(LoginMatrixTest.class);
+
+    private static final String OUTCOME_COLUMN = "loginOutcome";
+    private static final String MESSAGE_COLUMN = "loginMessage";
+
+    /**
+     * What the login form should do for a row, and where the evidence shows up
+     */
+    enum LoginOutcome {
+        SUCCESS(By.cssSelector("#searchBoxContainer input")),
+        EMAIL_ERROR(By.id("email-error")),
+        PASSWORD_ERROR(By.cssSelector("div[data-test-id='touchableErrorMessage'], span._GUqAa"));
+
+        private final By evidence;
+
+        LoginOutcome(By evidence) {
+            this.evidence = evidence;
+        }
+    }
+
+    /**
+     * Outcome of one row, one line of the aggregated table
+     */
+    static final class ScenarioResult {
+        final String key;
+        final LoginOutcome expected;
+        final String actual;
+        final boolean passed;
+        final long latencyMs;
+        final String detail;
+
+        ScenarioResult(String key, LoginOutcome expected, String actual, boolean passed, long latencyMs, String detail) {
+            this.key = key;
+            this.expected = expected;
+            this.actual = actual;
+            this.passed = passed;
+            this.latencyMs = latencyMs;
+            this.detail = detail;
+        }
+    }
+
+    private DriverPool pool;
+
+    @Test(description = "Run every login scenario from TestData.csv across a pool of browser sessions")
+    public void loginMatrix() throws InterruptedException {
+        ExtentTest test = getTest();
+        test.assignCategory("Login");
+        test.assignAuthor("Asmi");
+
+        List<Map<String, String>> scenarios = new ArrayList<>();
+        for (Map<String, String> row : CSVReader.getAllTestData()) {
+            String outcome = row.get(OUTCOME_COLUMN);
+            if (outcome != null && !outcome.isEmpty()) {
+                scenarios.add(row);
+            }
+        }
+        Assert.assertFalse(scenarios.isEmpty(), "No rows with a " + OUTCOME_COLUMN + " column in TestData.csv");
+
+        int threads = Math.min(scenarios.size(),
+                ConfigReader.getInt("matrix.threads", Math.min(Runtime.getRuntime().availableProcessors(), 4)));
+        logger.info("Running {} login scenarios on {} browser session(s)", scenarios.size(), threads);
+        test.info("Running " + scenarios.size() + " login scenarios on " + threads + " browser session(s)");
+
+        pool = new DriverPool(threads);
+        pool.adopt(driver); // reuse the class driver as one of the sessions
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<ScenarioResult> results = new ArrayList<>();
+        long started = System.nanoTime();
+        try {
+            List<Future<ScenarioResult>> futures = new ArrayList<>();
+            for (Map<String, String> row : scenarios) {
+                futures.add(executor.submit(() -> runScenario(row)));
+            }
+            for (Future<ScenarioResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Login scenario crashed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long wallMs = (System.nanoTime() - started) / 1_000_000;
+
+        report(test, results, wallMs);
+
+        long failed = results.stream().filter(r -> !r.passed).count();
+        Assert.assertEquals(failed, 0L, failed + " of " + results.size() + " login scenarios failed");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ScenarioResult runScenario(Map<String, String> row) throws InterruptedException {
+        String key = row.get("_key");
+        LoginOutcome expected = LoginOutcome.valueOf(row.get(OUTCOME_COLUMN).trim());
+        String message = row.get(MESSAGE_COLUMN);
+
+        WebDriver session = pool.borrow();
+        long start = System.nanoTime();
+        try {
+            resetSession(session);
+
+            LoginPage loginPage = new LoginPage(session);
+            loginPage.open(getBaseUrl() + "/");
+            loginPage.clickLoginButton();
+            loginPage.login(row.get("email"), row.get("password"));
+
+            LoginOutcome actual = awaitOutcome(session);
+            String actualText = actual == null ? "" : textOf(session, actual);
+            boolean passed = actual == expected
+                    && (message == null || message.isEmpty() || actualText.contains(message));
+
+            String detail = actual == null ? "no outcome observed" : actualText;
+            logger.info("Login scenario {}: expected {} got {} ({})", key, expected, actual, passed ? "pass" : "fail");
+            return new ScenarioResult(key, expected, actual == null ? "NONE" : actual.name(), passed,
+                    elapsedMs(start), detail);
+        } catch (RuntimeException e) {
+            logger.error("Login scenario {} failed: {}", key, e.getMessage());
+            return new ScenarioResult(key, expected, "ERROR", false, elapsedMs(start), e.getMessage());
+        } finally {
+            pool.release(session);
+        }
+    }
+
+    /**
+     * Same clean-slate steps as LoginTest.setupTest, per borrowed session
+     */
+    private void resetSession(WebDriver session) {
+        session.manage().deleteAllCookies();
+        try {
+            ((JavascriptExecutor) session).executeScript("window.sessionStorage.clear(); window.localStorage.clear();");
+        } catch (Exception e) {
+            logger.debug("Could not clear browser storage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for the first visible evidence of any outcome instead of a fixed viewing pause
+     */
+    private LoginOutcome awaitOutcome(WebDriver session) {
+        WebDriverWait outcomeWait = new WebDriverWait(session, ConfigReader.config().getExplicitWait());
+        try {
+            return outcomeWait.until(d -> {
+                for (LoginOutcome outcome : LoginOutcome.values()) {
+                    for (WebElement element : d.findElements(outcome.evidence)) {
+                        if (element.isDisplayed()) {
+                            return outcome;
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    private String textOf(WebDriver session, LoginOutcome outcome) {
+        try {
+            return new WebDriverWait(session, ConfigReader.config().getExplicitWait())
+                    .until(ExpectedConditions.visibilityOfElementLocated(outcome.evidence))
+                    .getText();
+        } catch (TimeoutException e) {
+            return "";
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private void report(ExtentTest test, List<ScenarioResult> results, long wallMs) {
+        String[][] table = new String[results.size() + 1][];
+        table[0] = new String[]{"Scenario", "Expected", "Actual", "Result", "Latency (ms)", "Detail"};
+
+        long totalLatency = 0;
+        StringBuilder log = new StringBuilder(String.format("%n%-22s %-15s %-15s %-6s %10s%n",
+                "Scenario", "Expected", "Actual", "Result", "Latency"));
+        for (int i = 0; i < results.size(); i++) {
+            ScenarioResult r = results.get(i);
+            totalLatency += r.latencyMs;
+            table[i + 1] = new String[]{r.key, r.expected.name(), r.actual, r.passed ? "PASS" : "FAIL",
+                    String.valueOf(r.latencyMs), r.detail};
+            log.append(String.format("%-22s %-15s %-15s %-6s %8d ms%n",
+                    r.key, r.expected, r.actual, r.passed ? "PASS" : "FAIL", r.latencyMs));
+        }
+        log.append(String.format("Wall time %d ms, summed scenario time %d ms", wallMs, totalLatency));
+
+        logger.info("Login matrix results:{}", log);
+        test.info(MarkupHelper.createTable(table));
+        test.info("Wall time " + wallMs + " ms for " + totalLatency + " ms of scenario time");
+    }
+}
@@ -3,8 +3,9 @@ package com.pinterest.tests;
 import com.aventstack.extentreports.ExtentTest;
 import com.pinterest.base.BaseTest;
 import com.pinterest.pages.LoginPage;
+import com.pinterest.utils.CommandBudget;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.FluentWait;
@@ -72,6 +73,7 @@ public class LoginTest extends BaseTest {
     }
     
     @Test(priority = 1, description = "Verify successful login with valid credentials")
+    @CommandBudget(commands = 80, millis = 90_000)
     public void validLogin() {
         ExtentTest test = getTest();
         test.assignCategory("Login");
@@ -81,8 +83,8 @@ public class LoginTest extends BaseTest {
         test.info("Test 1: Valid Login - Started");
         
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.validUser().email();
+        String password = TestData.validUser().password();
         
         logger.info("Email: {}", email);
         test.info("Using email: " + email);
@@ -129,8 +131,8 @@ public class LoginTest extends BaseTest {
         test.info("Test 2: Wrong Password - Started");
         
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("wrongPasswordUser");
-        String password = CSVReader.getPassword("wrongPasswordUser");
+        String email = TestData.wrongPasswordUser().email();
+        String password = TestData.wrongPasswordUser().password();
         
         logger.info("Email: {}", email);
         test.info("Using email: " + email);
@@ -179,7 +181,7 @@ public class LoginTest extends BaseTest {
         test.info("Test 3: Empty Email - Started");
         
         String baseUrl = ConfigReader.get("base.url");
-        String password = CSVReader.getPassword("validUser");
+        String password = TestData.validUser().password();
         
         logger.info("Testing with empty email");
         test.info("Testing with empty email");
@@ -228,7 +230,7 @@ public class LoginTest extends BaseTest {
         test.info("Test 4: Empty Password - Started");
         
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
+        String email = TestData.validUser().email();
         
         logger.info("Email: {}", email);
         test.info("Using email: " + email);
@@ -278,8 +280,8 @@ public class LoginTest extends BaseTest {
         test.info("Test 5: Invalid Email Format - Started");
         
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getData("invalidEmail", "noAtSymbol");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.invalidEmail().noAtSymbol();
+        String password = TestData.validUser().password();
         
         logger.info("Invalid email: {}", email);
         test.info("Testing with invalid email format: " + email);
@@ -5,7 +5,7 @@ import com.pinterest.base.BaseTest;
 import com.pinterest.pages.LoginPage;
 import com.pinterest.pages.LogoutPage;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,8 +32,8 @@ public class LogoutTest extends BaseTest {
 
         // Get test data from CSV
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.validUser().email();
+        String password = TestData.validUser().password();
 
         logger.info("Email: {}", email);
         test.info("Using email: " + email);
@@ -5,7 +5,7 @@ import com.pinterest.base.BaseTest;
 import com.pinterest.pages.LoginPage;
 import com.pinterest.pages.PinPage;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 import org.openqa.selenium.By;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -61,8 +61,8 @@ public class PinTest extends BaseTest {
         
         // Get base URL and credentials
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.validUser().email();
+        String password = TestData.validUser().password();
         
         logger.info("Email: {}", email);
         test.info("Using email: " + email);
@@ -5,7 +5,7 @@ import com.pinterest.base.BaseTest;
 import com.pinterest.pages.LoginPage;
 import com.pinterest.pages.SearchPage;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.FluentWait;
@@ -31,8 +31,8 @@ public class SearchTest extends BaseTest {
         logger.info("Starting search tests setup");
         
         baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("validUser");
-        String password = CSVReader.getPassword("validUser");
+        String email = TestData.validUser().email();
+        String password = TestData.validUser().password();
         
         logger.info("Email: {}", email);
         logger.debug("Password configured for user");
@@ -84,7 +84,7 @@ public class SearchTest extends BaseTest {
         logger.info("TEST 1: Valid Search - Started");
         test.info("Test 1: Valid Search - Started");
         
-        String validQuery = CSVReader.getValidQuery();
+        String validQuery = TestData.search().validQuery();
         logger.info("Valid search query: {}", validQuery);
         test.info("Searching for: " + validQuery);
         
@@ -121,7 +121,7 @@ public class SearchTest extends BaseTest {
         test.info("Test 2: Spelling Error Search - Started");
         
         searchPage.navigateToHome(baseUrl);
-        String spellingErrorQuery = CSVReader.getSpellingErrorQuery();
+        String spellingErrorQuery = TestData.search().spellingError();
         
         logger.info("Spelling error query: {}", spellingErrorQuery);
         test.info("Searching with misspelled query: " + spellingErrorQuery);
@@ -164,7 +164,7 @@ public class SearchTest extends BaseTest {
         test.info("Test 3: Special Characters Search - Started");
         
         searchPage.navigateToHome(baseUrl);
-        String specialCharsQuery = CSVReader.getSpecialCharactersQuery();
+        String specialCharsQuery = TestData.search().specialCharacters();
         
         logger.info("Special characters query: {}", specialCharsQuery);
         test.info("Searching with special characters: " + specialCharsQuery);
@@ -4,7 +4,7 @@ import com.aventstack.extentreports.ExtentTest;
 import com.pinterest.base.BaseTest;
 import com.pinterest.pages.SignupPage;
 import com.pinterest.utils.ConfigReader;
-import com.pinterest.utils.CSVReader;
+import com.pinterest.data.TestData;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -62,9 +62,9 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Valid Signup");
 
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("newSignupUser");
-        String password = CSVReader.getPassword("newSignupUser");
-        String birthdate = CSVReader.getBirthdate("newSignupUser");
+        String email = TestData.newSignupUser().email();
+        String password = TestData.newSignupUser().password();
+        String birthdate = TestData.newSignupUser().birthdate();
 
         test.info("Base URL: " + baseUrl);
         test.info("Using email: " + email);
@@ -108,8 +108,8 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Empty Email validation");
 
         String baseUrl = ConfigReader.get("base.url");
-        String password = CSVReader.getPassword("newSignupUser");
-        String birthdate = CSVReader.getBirthdate("newSignupUser");
+        String password = TestData.newSignupUser().password();
+        String birthdate = TestData.newSignupUser().birthdate();
 
         SignupPage signupPage = new SignupPage(driver);
         signupPage.open(baseUrl + "/");
@@ -150,8 +150,8 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Empty Password validation");
 
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("newSignupUser2");
-        String birthdate = CSVReader.getBirthdate("newSignupUser2");
+        String email = TestData.newSignupUser2().email();
+        String birthdate = TestData.newSignupUser2().birthdate();
 
         SignupPage signupPage = new SignupPage(driver);
         signupPage.open(baseUrl + "/");
@@ -232,9 +232,9 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Invalid email format validation");
 
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getData("invalidEmail", "noAtSymbol");
-        String password = CSVReader.getPassword("newSignupUser");
-        String birthdate = CSVReader.getBirthdate("newSignupUser");
+        String email = TestData.invalidEmail().noAtSymbol();
+        String password = TestData.newSignupUser().password();
+        String birthdate = TestData.newSignupUser().birthdate();
 
         SignupPage signupPage = new SignupPage(driver);
         signupPage.open(baseUrl + "/");
@@ -275,9 +275,9 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Underage user validation");
 
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("underageUser");
-        String password = CSVReader.getPassword("underageUser");
-        String birthdate = CSVReader.getBirthdate("underageUser");
+        String email = TestData.underageUser().email();
+        String password = TestData.underageUser().password();
+        String birthdate = TestData.underageUser().birthdate();
 
         SignupPage signupPage = new SignupPage(driver);
         signupPage.open(baseUrl + "/");
@@ -318,9 +318,9 @@ public class SignupTest extends BaseTest {
         test.info("Starting: Future birthdate validation");
 
         String baseUrl = ConfigReader.get("base.url");
-        String email = CSVReader.getEmail("futureDateUser");
-        String password = CSVReader.getPassword("futureDateUser");
-        String birthdate = CSVReader.getBirthdate("futureDateUser");
+        String email = TestData.futureDateUser().email();
+        String password = TestData.futureDateUser().password();
+        String birthdate = TestData.futureDateUser().birthdate();
 
         SignupPage signupPage = new SignupPage(driver);
         signupPage.open(baseUrl + "/");
@@ -0,0 +1,641 @@
+package com.pinterest.tools;
+
+import com.pinterest.utils.ConfigReader;
+import com.pinterest.utils.DriverFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Browser-side cost of every locator declared in com.pinterest.pages.
+ *
+ * The catalog is read by reflection: By and By[] fields (static or per instance) and @FindBy
+ * fields. Each locator runs in the browser with querySelectorAll / document.evaluate, repeated
+ * for a short time budget, against either the live page or a captured DOM (parsed with DOMParser,
+ * so nothing on it runs or loads). XPath that has an exact CSS equivalent (attribute, class
+ * substring and positional steps, no text()) gets a CSS suggestion, timed and checked to match the
+ * same elements.
+ *
+ * Standalone: mvn test-compile exec:java@profile-selectors -Dselector.pages=page.html,bundle.zip
+ * Targets are http(s) URLs, saved HTML files or failure bundles (dom.html); default is base.url.
+ * The table is printed and written to target/selector-profile.tsv.
+ */
+public final class SelectorProfiler {
+
+    private static final String PAGES_PACKAGE = "com.pinterest.pages";
+
+    /** Per selector: at least MIN_RUNS, then until BUDGET_MS or MAX_RUNS */
+    private static final int MIN_RUNS = 5;
+    private static final int MAX_RUNS = 500;
+    private static final int BUDGET_MS = 25;
+
+    private static final String SCRIPT =
+            "var items = arguments[0], html = arguments[1];\n"
+            + "var root = html ? new DOMParser().parseFromString(html, 'text/html') : document;\n"
+            + "function count(kind, expr) {\n"
+            + "  if (kind === 'css') return root.querySelectorAll(expr).length;\n"
+            + "  return root.evaluate(expr, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;\n"
+            + "}\n"
+            + "function nodes(kind, expr) {\n"
+            + "  if (kind === 'css') return Array.prototype.slice.call(root.querySelectorAll(expr));\n"
+            + "  var snap = root.evaluate(expr, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), out = [];\n"
+            + "  for (var i = 0; i < snap.snapshotLength; i++) out.push(snap.snapshotItem(i));\n"
+            + "  return out;\n"
+            + "}\n"
+            + "function time(kind, expr) {\n"
+            + "  var found = nodes(kind, expr);\n" // also the warm-up, and throws on an invalid selector
+            + "  var runs = 0, start = performance.now(), elapsed = 0;\n"
+            + "  while (runs < " + MIN_RUNS + " || (elapsed < " + BUDGET_MS + " && runs < " + MAX_RUNS + ")) {\n"
+            + "    count(kind, expr); runs++; elapsed = performance.now() - start;\n"
+            + "  }\n"
+            + "  return {nodes: found, micros: elapsed * 1000 / runs};\n"
+            + "}\n"
+            + "return items.map(function (item) {\n"
+            + "  var r = {};\n"
+            + "  try {\n"
+            + "    var t = time(item[0], item[1]);\n"
+            + "    r.matches = t.nodes.length; r.micros = t.micros;\n"
+            + "    if (item[2]) {\n"
+            + "      try {\n"
+            + "        var s = time('css', item[2]);\n"
+            + "        r.suggestionMatches = s.nodes.length; r.suggestionMicros = s.micros;\n"
+            + "        r.equivalent = s.nodes.length === t.nodes.length\n"
+            + "            && s.nodes.every(function (n, i) { return n === t.nodes[i]; });\n"
+            + "      } catch (e) { r.suggestionError = String(e.message || e); }\n"
+            + "    }\n"
+            + "  } catch (e) { r.error = String(e.message || e); }\n"
+            + "  return r;\n"
+            + "});\n";
+
+    /**
+     * One declared locator: where it lives and what the browser is asked to run
+     */
+    public static final class Locator {
+        private final String owner;
+        private final String kind;        // css or xpath
+        private final String expression;
+        private final String suggestion;  // exact CSS equivalent of an XPath, or null
+
+        Locator(String owner, String kind, String expression, String suggestion) {
+            this.owner = owner;
+            this.kind = kind;
+            this.expression = expression;
+            this.suggestion = suggestion;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public String getSuggestion() {
+            return suggestion;
+        }
+    }
+
+    /**
+     * Cost of one locator on one page
+     */
+    public static final class Result {
+        private final Locator locator;
+        private final int matches;
+        private final double micros;
+        private final String error;
+        private final int suggestionMatches;
+        private final double suggestionMicros;
+        private final boolean equivalent;
+
+        Result(Locator locator, Map<String, Object> raw) {
+            this.locator = locator;
+            this.matches = number(raw.get("matches")).intValue();
+            this.micros = number(raw.get("micros")).doubleValue();
+            Object failure = raw.containsKey("error") ? raw.get("error") : raw.get("suggestionError");
+            this.error = failure == null ? null : failure.toString();
+            this.suggestionMatches = number(raw.get("suggestionMatches")).intValue();
+            this.suggestionMicros = number(raw.get("suggestionMicros")).doubleValue();
+            this.equivalent = Boolean.TRUE.equals(raw.get("equivalent"));
+        }
+
+        private static Number number(Object value) {
+            return value instanceof Number ? (Number) value : 0;
+        }
+
+        public Locator getLocator() {
+            return locator;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public double getMicros() {
+            return micros;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * The CSS suggestion, when it matched the same elements here and ran faster
+         */
+        public String getCheaperCss() {
+            return equivalent && suggestionMicros < micros ? locator.suggestion : null;
+        }
+
+        public double getSuggestionMicros() {
+            return suggestionMicros;
+        }
+
+        String note() {
+            if (error != null) {
+                return "error: " + error;
+            }
+            if (locator.suggestion == null) {
+                return locator.kind.equals("xpath") ? "no CSS equivalent" : "";
+            }
+            if (!equivalent) {
+                return "CSS matched " + suggestionMatches + " elements instead of " + matches + ": " + locator.suggestion;
+            }
+            return String.format("%s (%.1f us, %.1fx)", locator.suggestion, suggestionMicros,
+                    suggestionMicros > 0 ? micros / suggestionMicros : 0);
+        }
+    }
+
+    // ========== CATALOG ==========
+
+    /**
+     * Every By declared in the page objects, in class and declaration order
+     */
+    public static List<Locator> catalog() {
+        List<Locator> locators = new ArrayList<>();
+        for (Class<?> page : pageClasses()) {
+            Object instance = null;
+            boolean instantiated = false;
+            for (Field field : page.getDeclaredFields()) {
+                String owner = page.getSimpleName() + "." + field.getName();
+                if (field.isAnnotationPresent(FindBy.class)) {
+                    add(locators, owner, new Annotations(field).buildBy());
+                    continue;
+                }
+                if (field.getType() != By.class && field.getType() != By[].class) {
+                    continue;
+                }
+                boolean isStatic = Modifier.isStatic(field.getModifiers());
+                if (!isStatic && !instantiated) {
+                    instance = instantiate(page);
+                    instantiated = true;
+                }
+                if (!isStatic && instance == null) {
+                    continue;
+                }
+                Object value;
+                try {
+                    field.setAccessible(true);
+                    value = field.get(isStatic ? null : instance);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    System.err.println("Skipping " + owner + ": " + e.getMessage());
+                    continue;
+                }
+                if (value instanceof By) {
+                    add(locators, owner, (By) value);
+                } else if (value instanceof By[]) {
+                    By[] all = (By[]) value;
+                    for (int i = 0; i < all.length; i++) {
+                        add(locators, owner + "[" + i + "]", all[i]);
+                    }
+                }
+            }
+        }
+        return locators;
+    }
+
+    private static void add(List<Locator> locators, String owner, By by) {
+        if (by == null) {
+            return;
+        }
+        String text = by.toString();
+        int colon = text.indexOf(": ");
+        if (colon < 0) {
+            System.err.println("Skipping " + owner + ", not a single-strategy locator: " + text);
+            return;
+        }
+        String strategy = text.substring(0, colon);
+        String value = text.substring(colon + 2);
+        switch (strategy) {
+            case "By.cssSelector":
+                locators.add(new Locator(owner, "css", value, null));
+                break;
+            case "By.xpath":
+                locators.add(new Locator(owner, "xpath", value, toCss(value)));
+                break;
+            case "By.id":
+                locators.add(new Locator(owner, "css", idSelector(value), null));
+                break;
+            case "By.name":
+                locators.add(new Locator(owner, "css", "*[name=" + quote(value) + "]", null));
+                break;
+            case "By.className":
+                locators.add(new Locator(owner, "css", "." + value, null));
+                break;
+            case "By.tagName":
+                locators.add(new Locator(owner, "css", value, null));
+                break;
+            case "By.linkText":
+                locators.add(new Locator(owner, "xpath", "//a[normalize-space(.)=" + xpathQuote(value) + "]", null));
+                break;
+            case "By.partialLinkText":
+                locators.add(new Locator(owner, "xpath", "//a[contains(., " + xpathQuote(value) + ")]", null));
+                break;
+            default:
+                System.err.println("Skipping " + owner + ", unsupported strategy: " + text);
+        }
+    }
+
+    private static List<Class<?>> pageClasses() {
+        ClassLoader loader = SelectorProfiler.class.getClassLoader();
+        String path = PAGES_PACKAGE.replace('.', '/');
+        TreeSet<String> names = new TreeSet<>();
+        try {
+            Enumeration<URL> roots = loader.getResources(path);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if (root.getProtocol().equals("file")) {
+                    try (Stream<Path> files = Files.list(Paths.get(root.toURI()))) {
+                        files.map(p -> p.getFileName().toString()).forEach(names::add);
+                    }
+                } else if (root.getProtocol().equals("jar")) {
+                    JarURLConnection connection = (JarURLConnection) root.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        for (JarEntry entry : Collections.list(jar.entries())) {
+                            String name = entry.getName();
+                            if (name.startsWith(path + "/") && name.indexOf('/', path.length() + 1) < 0) {
+                                names.add(name.substring(path.length() + 1));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException("Could not list page objects in " + PAGES_PACKAGE + ": " + e.getMessage(), e);
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            if (!name.endsWith(".class") || name.contains("$")) {
+                continue;
+            }
+            String className = PAGES_PACKAGE + "." + name.substring(0, name.length() - ".class".length());
+            try {
+                classes.add(Class.forName(className, false, loader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Skipping " + className + ": " + e);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Page objects keep most locators in instance fields; build one around a driver that does nothing
+     */
+    private static Object instantiate(Class<?> page) {
+        try {
+            Constructor<?> constructor = page.getDeclaredConstructor(WebDriver.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(inertDriver());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Skipping instance locators of " + page.getSimpleName() + ": " + e);
+            return null;
+        }
+    }
+
+    private static WebDriver inertDriver() {
+        return (WebDriver) Proxy.newProxyInstance(SelectorProfiler.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "SelectorProfiler inert driver";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+                    Class<?> type = method.getReturnType();
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (type.isPrimitive() && type != void.class) {
+                        return 0;
+                    }
+                    return null;
+                });
+    }
+
+    // ========== XPATH TO CSS ==========
+
+    private static final Pattern NAME = Pattern.compile("\\*|[A-Za-z_][\\w.-]*");
+    private static final Pattern POSITION = Pattern.compile("\\d+");
+    private static final Pattern HAS_ATTRIBUTE = Pattern.compile("@([\\w-]+)");
+    private static final Pattern EQUALS = Pattern.compile("@([\\w-]+)\\s*=\\s*('[^']*'|\"[^\"]*\")");
+    private static final Pattern FUNCTION = Pattern.compile(
+            "(contains|starts-with)\\(\\s*@([\\w-]+)\\s*,\\s*('[^']*'|\"[^\"]*\")\\s*\\)");
+    private static final Pattern IDENTIFIER = Pattern.compile("-?[_A-Za-z][\\w-]*");
+
+    /**
+     * Exact CSS equivalent of an XPath made of //, / steps with attribute, contains/starts-with on
+     * attributes and leading position predicates; null for anything else (text(), ., or, unions)
+     */
+    static String toCss(String xpath) {
+        String x = xpath.trim();
+        if (!x.startsWith("//")) {
+            return null;
+        }
+        StringBuilder css = new StringBuilder();
+        int i = 0;
+        while (i < x.length()) {
+            boolean descendant;
+            if (x.startsWith("//", i)) {
+                descendant = true;
+                i += 2;
+            } else if (x.charAt(i) == '/') {
+                descendant = false;
+                i++;
+            } else {
+                return null;
+            }
+
+            Matcher name = NAME.matcher(x).region(i, x.length());
+            if (!name.lookingAt()) {
+                return null;
+            }
+            String element = name.group();
+            i = name.end();
+            StringBuilder step = new StringBuilder(element.equals("*") ? "" : element);
+
+            boolean first = true;
+            while (i < x.length() && x.charAt(i) == '[') {
+                int end = closingBracket(x, i);
+                if (end < 0) {
+                    return null;
+                }
+                String predicate = predicate(x.substring(i + 1, end).trim(), element, first);
+                if (predicate == null) {
+                    return null;
+                }
+                step.append(predicate);
+                first = false;
+                i = end + 1;
+            }
+            if (step.length() == 0) {
+                step.append('*');
+            }
+            if (css.length() > 0) {
+                css.append(descendant ? " " : " > ");
+            }
+            css.append(step);
+        }
+        return css.toString();
+    }
+
+    private static String predicate(String predicate, String element, boolean first) {
+        if (POSITION.matcher(predicate).matches()) {
+            // [n] after another predicate counts only the filtered siblings; CSS cannot express that
+            if (!first) {
+                return null;
+            }
+            return (element.equals("*") ? ":nth-child(" : ":nth-of-type(") + predicate + ")";
+        }
+        StringBuilder css = new StringBuilder();
+        for (String term : splitAnd(predicate)) {
+            Matcher m;
+            if ((m = EQUALS.matcher(term)).matches()) {
+                String value = unquote(m.group(2));
+                css.append(m.group(1).equals("id") && IDENTIFIER.matcher(value).matches()
+                        ? "#" + value : "[" + m.group(1) + "=" + quote(value) + "]");
+            } else if ((m = FUNCTION.matcher(term)).matches()) {
+                css.append("[").append(m.group(2)).append(m.group(1).equals("contains") ? "*=" : "^=")
+                        .append(quote(unquote(m.group(3)))).append("]");
+            } else if ((m = HAS_ATTRIBUTE.matcher(term)).matches()) {
+                css.append("[").append(m.group(1)).append("]");
+            } else {
+                return null;
+            }
+        }
+        return css.toString();
+    }
+
+    private static List<String> splitAnd(String predicate) {
+        List<String> terms = new ArrayList<>();
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < predicate.length(); i++) {
+            char c = predicate.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (predicate.startsWith(" and ", i)) {
+                terms.add(predicate.substring(start, i).trim());
+                start = i + 5;
+                i += 4;
+            }
+        }
+        terms.add(predicate.substring(start).trim());
+        return terms;
+    }
+
+    private static int closingBracket(String x, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < x.length(); i++) {
+            char c = x.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String quoted) {
+        return quoted.substring(1, quoted.length() - 1);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String xpathQuote(String value) {
+        return value.contains("'") ? "\"" + value + "\"" : "'" + value + "'";
+    }
+
+    private static String idSelector(String id) {
+        return IDENTIFIER.matcher(id).matches() ? "#" + id : "*[id=" + quote(id) + "]";
+    }
+
+    // ========== PROFILING ==========
+
+    /**
+     * Time the whole catalog against the page the driver is on
+     */
+    public static List<Result> profile(WebDriver driver) {
+        return profile(driver, catalog(), null);
+    }
+
+    /**
+     * Time locators against captured HTML (null: the driver's current page). Most expensive first.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Result> profile(WebDriver driver, List<Locator> locators, String capturedHtml) {
+        List<List<String>> items = new ArrayList<>();
+        for (Locator locator : locators) {
+            items.add(Arrays.asList(locator.kind, locator.expression, locator.suggestion));
+        }
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT, items, capturedHtml);
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) raw;
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < locators.size(); i++) {
+            results.add(new Result(locators.get(i), rows.get(i)));
+        }
+        results.sort(Comparator.comparingDouble(Result::getMicros).reversed());
+        return results;
+    }
+
+    /**
+     * Fixed-width table, one locator per line
+     */
+    public static String table(List<Result> results) {
+        int width = 12;
+        for (Result r : results) {
+            width = Math.max(width, r.locator.owner.length());
+        }
+        StringBuilder out = new StringBuilder(String.format("%-" + width + "s %-5s %7s %10s  %s%n",
+                "Locator", "Kind", "Matches", "us/call", "Cheaper CSS / note"));
+        for (Result r : results) {
+            out.append(String.format("%-" + width + "s %-5s %7d %10.1f  %s%n",
+                    r.locator.owner, r.locator.kind, r.matches, r.micros, r.note()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Profile each target and write target/selector-profile.tsv
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> targets = new ArrayList<>();
+        for (String arg : args) {
+            for (String target : arg.split(",")) {
+                if (!target.trim().isEmpty()) {
+                    targets.add(target.trim());
+                }
+            }
+        }
+        if (targets.isEmpty()) {
+            targets.add(ConfigReader.get("base.url"));
+        }
+
+        List<Locator> locators = catalog();
+        System.out.println("Profiling " + locators.size() + " locators from " + PAGES_PACKAGE);
+        StringBuilder tsv = new StringBuilder("page\tlocator\tkind\texpression\tmatches\tmicros\tcheaperCss\tcssMicros\terror\n");
+        WebDriver driver = DriverFactory.createInstance();
+        try {
+            for (String target : targets) {
+                String html = null;
+                if (target.startsWith("http://") || target.startsWith("https://")) {
+                    driver.get(target);
+                } else {
+                    html = readCapturedPage(Paths.get(target));
+                    driver.get("about:blank");
+                }
+                List<Result> results = profile(driver, locators, html);
+                System.out.println("\n" + target + "\n" + table(results));
+                for (Result r : results) {
+                    String cheaper = r.getCheaperCss();
+                    tsv.append(String.join("\t", target, r.locator.owner, r.locator.kind, r.locator.expression,
+                            String.valueOf(r.matches), String.format("%.1f", r.micros),
+                            cheaper == null ? "" : cheaper,
+                            cheaper == null ? "" : String.format("%.1f", r.suggestionMicros),
+                            r.error == null ? "" : r.error)).append('\n');
+                }
+            }
+        } finally {
+            driver.quit();
+        }
+        Path out = Paths.get("target", "selector-profile.tsv");
+        Files.createDirectories(out.getParent());
+        Files.write(out, tsv.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Wrote " + out.toAbsolutePath());
+    }
+
+    /**
+     * Saved HTML, or the dom.html of a FailureBundle zip
+     */
+    static String readCapturedPage(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(".zip")) {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        }
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            ZipEntry dom = zip.getEntry("dom.html");
+            if (dom == null) {
+                throw new IOException("No dom.html in " + file);
+            }
+            try (InputStream in = zip.getInputStream(dom)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private SelectorProfiler() {}
+}
@@ -0,0 +1,56 @@
+package com.pinterest.tools;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * XPath to CSS rewriting: only exact equivalents, null for anything CSS cannot express
+ */
+public class SelectorProfilerTest {
+
+    @DataProvider
+    public Object[][] exact() {
+        return new Object[][]{
+                {"//div[@id='main']", "div#main"},
+                {"//*[@id='main']", "#main"},
+                {"//div[@id='1st']", "div[id=\"1st\"]"},
+                {"//button[@data-test-id='save']", "button[data-test-id=\"save\"]"},
+                {"//input[@type='email' and @name='id']", "input[type=\"email\"][name=\"id\"]"},
+                {"//div[contains(@class, 'Pin')]", "div[class*=\"Pin\"]"},
+                {"//a[starts-with(@href,\"/pin/\")]", "a[href^=\"/pin/\"]"},
+                {"//input[@disabled]", "input[disabled]"},
+                {"//div/span", "div > span"},
+                {"//div//a", "div a"},
+                {"//li[2]", "li:nth-of-type(2)"},
+                {"//ul/*[3]", "ul > :nth-child(3)"},
+                {"//li[2][@class='x']", "li:nth-of-type(2)[class=\"x\"]"},
+                {"//div[@title='say \"hi\"']", "div[title=\"say \\\"hi\\\"\"]"},
+        };
+    }
+
+    @Test(dataProvider = "exact")
+    public void rewritesExactly(String xpath, String css) {
+        Assert.assertEquals(SelectorProfiler.toCss(xpath), css);
+    }
+
+    @DataProvider
+    public Object[][] inexpressible() {
+        return new Object[][]{
+                {"//button[text()='Save']"},
+                {"//div[contains(., 'Save')]"},
+                {"//div[@class='x'][2]"},
+                {"//div[@a='1' or @b='2']"},
+                {"//div | //span"},
+                {"(//div)[1]"},
+                {"/html/body"},
+                {"//div/.."},
+                {"//div[@id='x'"},
+        };
+    }
+
+    @Test(dataProvider = "inexpressible")
+    public void rejectsInexact(String xpath) {
+        Assert.assertNull(SelectorProfiler.toCss(xpath));
+    }
+}
@@ -0,0 +1,30 @@
+package com.pinterest.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConfigReaderTest {
+
+    @Test
+    public void environmentNamesArePrefixed() {
+        Assert.assertEquals(ConfigReader.toEnvName("browser"), "PINTEREST_BROWSER");
+        Assert.assertEquals(ConfigReader.toEnvName("page.load-timeout"), "PINTEREST_PAGE_LOAD_TIMEOUT");
+    }
+
+    @Test
+    public void systemPropertyOverridesKeyOutsideFiles() {
+        System.setProperty("config.reader.test.key", "from-property");
+        try {
+            Assert.assertEquals(ConfigReader.get("config.reader.test.key"), "from-property");
+        } finally {
+            System.clearProperty("config.reader.test.key");
+        }
+    }
+
+    @Test
+    public void missingKeyFallsBackToDefault() {
+        Assert.assertEquals(ConfigReader.get("config.reader.test.missing", "fallback"), "fallback");
+        Assert.assertEquals(ConfigReader.getInt("config.reader.test.missing", 7), 7);
+        Assert.assertNull(ConfigReader.get("config.reader.test.missing", null));
+    }
+}
@@ -0,0 +1,98 @@
+package com.pinterest.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eviction in ScreencastRecorder's ring buffer
+ */
+public class FrameRingTest {
+
+    @Test
+    public void keepsFramesThatFit() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(10, 1000);
+        ring.add(frame(4, 1), 0);
+        ring.add(frame(4, 2), 1);
+
+        assertFrames(ring, 0, 1);
+    }
+
+    @Test
+    public void wrapEvictsOverwrittenFrames() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(10, 1000);
+        ring.add(frame(4, 1), 0);
+        ring.add(frame(4, 2), 1);
+        ring.add(frame(4, 3), 2); // wraps onto the first frame
+
+        assertFrames(ring, 1, 2);
+    }
+
+    @Test
+    public void evictsFramesOutsideWindow() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(100, 1000);
+        ring.add(frame(4, 1), 0);
+        ring.add(frame(4, 2), 500);
+        ring.add(frame(4, 3), 1600);
+
+        assertFrames(ring, 1600);
+    }
+
+    @Test
+    public void rejectsFrameLargerThanBuffer() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(10, 1000);
+        ring.add(frame(4, 1), 0);
+        ring.add(frame(11, 2), 1);
+
+        assertFrames(ring, 0);
+    }
+
+    @Test
+    public void survivingFramesAreNeverCorrupted() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(64, 60_000);
+        int[] sizes = {7, 13, 5, 21, 9, 3, 17, 11};
+        for (int i = 0; i < 200; i++) {
+            ring.add(frame(sizes[i % sizes.length], i), i);
+
+            List<Map.Entry<Long, byte[]>> frames = ring.snapshot();
+            Assert.assertEquals((long) frames.get(frames.size() - 1).getKey(), i, "newest frame kept");
+            int total = 0;
+            long previous = -1;
+            for (Map.Entry<Long, byte[]> f : frames) {
+                long ts = f.getKey();
+                Assert.assertTrue(ts > previous, "frames in order");
+                previous = ts;
+                Assert.assertEquals(f.getValue(), frame(sizes[(int) ts % sizes.length], (int) ts), "frame " + ts);
+                total += f.getValue().length;
+            }
+            Assert.assertTrue(total <= 64);
+        }
+    }
+
+    @Test
+    public void clearEmptiesRing() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(10, 1000);
+        ring.add(frame(4, 1), 0);
+        ring.clear();
+
+        Assert.assertEquals(ring.size(), 0);
+        Assert.assertTrue(ring.snapshot().isEmpty());
+    }
+
+    private static byte[] frame(int length, int fill) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) fill);
+        return bytes;
+    }
+
+    private static void assertFrames(ScreencastRecorder.FrameRing ring, long... timestamps) {
+        List<Map.Entry<Long, byte[]>> frames = ring.snapshot();
+        Assert.assertEquals(ring.size(), timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            Assert.assertEquals((long) frames.get(i).getKey(), timestamps[i]);
+        }
+    }
+}
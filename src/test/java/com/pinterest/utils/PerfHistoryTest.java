@@ -0,0 +1,49 @@
+package com.pinterest.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The regression gate with the defaults from config.properties: 5 samples, 25% slower,
+ * 250 ms slower and z above 3
+ */
+public class PerfHistoryTest {
+
+    private static final long[] STEADY = {1000, 1010, 990, 1005, 995};
+
+    @Test
+    public void flagsClearRegression() {
+        PerfHistory.Regression regression = PerfHistory.compare("Login;Submit", 1300, STEADY);
+        Assert.assertNotNull(regression);
+        Assert.assertEquals(regression.getKey(), "Login;Submit");
+        Assert.assertEquals(regression.getChangePct(), 30.0, 0.01);
+    }
+
+    @Test
+    public void ignoresChangeBelowThreshold() {
+        Assert.assertNull(PerfHistory.compare("step", 1200, STEADY));
+    }
+
+    @Test
+    public void ignoresChangeBelowMinimumDelta() {
+        // Twice as slow, but only 100 ms
+        Assert.assertNull(PerfHistory.compare("step", 200, new long[]{100, 100, 100, 100, 100}));
+    }
+
+    @Test
+    public void ignoresChangeWithinNoise() {
+        // 40% over the median, but the history's spread puts it at z of about 1.3
+        Assert.assertNull(PerfHistory.compare("step", 1400, new long[]{1000, 1500, 800, 1400, 900}));
+    }
+
+    @Test
+    public void needsMinimumSamples() {
+        Assert.assertNull(PerfHistory.compare("step", 5000, new long[]{1000, 1000, 1000, 1000}));
+        Assert.assertNull(PerfHistory.compare("step", 5000, null));
+    }
+
+    @Test
+    public void ignoresFasterRun() {
+        Assert.assertNull(PerfHistory.compare("step", 500, STEADY));
+    }
+}
@@ -0,0 +1,83 @@
+package com.pinterest.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ReportMergerTest {
+
+    private Path runDir;
+
+    @BeforeMethod
+    public void createRunDir() throws IOException {
+        runDir = Files.createTempDirectory("merge-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteRunDir() throws IOException {
+        try (Stream<Path> files = Files.walk(runDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void mergesShardsInTimestampOrder() throws IOException {
+        shard("shard-2.jsonl",
+                "{\"type\":\"test_start\",\"ts\":105}",
+                "{\"type\":\"test_end\",\"ts\":300}",
+                "{\"type\":\"note\",\"ts\":400}");
+        shard("shard-1.jsonl",
+                "{\"type\":\"test_start\",\"ts\":100}",
+                "",
+                "{\"type\":\"test_end\",\"ts\":200}",
+                "{\"type\":\"note\",\"ts\":400}",
+                "{\"type\":\"test_st"); // torn by a killed fork
+
+        Path merged = runDir.resolve(ReportMerger.MERGED_FILE);
+        List<ReportMerger.ShardStats> stats = ReportMerger.merge(ReportMerger.shards(runDir), merged);
+
+        List<String> order = new ArrayList<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : Files.readAllLines(merged, StandardCharsets.UTF_8)) {
+            JsonNode event = mapper.readTree(line);
+            order.add(event.path("ts").asLong() + "@" + event.path("shard").asText());
+        }
+        // Equal timestamps keep shard order
+        Assert.assertEquals(order, List.of("100@1", "105@2", "200@1", "300@2", "400@1", "400@2"));
+
+        Assert.assertEquals(stats.size(), 2);
+        ReportMerger.ShardStats first = stats.get(0);
+        Assert.assertEquals(first.shard, "1");
+        Assert.assertEquals(first.tests, 1);
+        Assert.assertEquals(first.busyMs, 100);
+        Assert.assertEquals(first.wallMs(), 300);
+        Assert.assertEquals(stats.get(1).busyMs, 195);
+    }
+
+    @Test
+    public void findsOnlyShardFiles() throws IOException {
+        shard("shard-b.jsonl");
+        shard("shard-a.jsonl");
+        shard(ReportMerger.MERGED_FILE);
+        shard("shard-a.csv");
+
+        Assert.assertEquals(ReportMerger.shards(runDir),
+                List.of(runDir.resolve("shard-a.jsonl"), runDir.resolve("shard-b.jsonl")));
+    }
+
+    private void shard(String name, String... lines) throws IOException {
+        Files.write(runDir.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.pinterest.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RetentionManagerTest {
+
+    private Path root;
+    private Path screenshots;
+
+    @BeforeMethod
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("retention-test");
+        screenshots = Files.createDirectories(root.resolve("screenshots"));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void sharedBlobIsCountedOncePerRun() throws IOException {
+        byte[] png = ScreenshotStoreTest.png(1);
+        Path first = screenshot("old_1.png", png);
+        Path second = screenshot("old_2.png", png);
+
+        new RetentionManager(root, screenshots, 10, Long.MAX_VALUE).record("old", "1", List.of(first, second));
+
+        RetentionManager.Entry entry = RetentionManager.Entry.parse(
+                Files.readAllLines(root.resolve("retention-index.tsv"), StandardCharsets.UTF_8).get(0));
+        Assert.assertEquals(entry.bytes, png.length);
+        Assert.assertEquals(entry.files, List.of("screenshots/old_1.png", "screenshots/old_2.png"));
+    }
+
+    @Test
+    public void archivingRunFreesItsBlobs() throws IOException {
+        RetentionManager manager = new RetentionManager(root, screenshots, 0, Long.MAX_VALUE);
+        Path oldShot = screenshot("old_1.png", ScreenshotStoreTest.png(1));
+        manager.record("old", "1", List.of(oldShot));
+        Path keptShot = screenshot("new_1.png", ScreenshotStoreTest.png(2));
+        manager.record("new", "1", List.of(keptShot));
+        long before = diskUsage(screenshots);
+
+        manager.enforce("new");
+
+        Assert.assertTrue(Files.exists(root.resolve("archive").resolve("old.zip")));
+        Assert.assertFalse(Files.exists(oldShot));
+        Assert.assertTrue(Files.exists(keptShot));
+        Assert.assertEquals(diskUsage(screenshots), before - ScreenshotStoreTest.png(1).length);
+    }
+
+    private Path screenshot(String name, byte[] png) throws IOException {
+        Path link = screenshots.resolve(name);
+        ScreenshotStoreTest.age(ScreenshotStore.store(png, link));
+        return link;
+    }
+
+    /** Bytes on disk, hard links to one blob counted once */
+    private static long diskUsage(Path dir) throws IOException {
+        Set<Object> inodes = new HashSet<>();
+        long bytes = 0;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                if (file.getFileName().toString().equals("index.tsv")) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (inodes.add(attributes.fileKey())) {
+                    bytes += attributes.size();
+                }
+            }
+        }
+        return bytes;
+    }
+}
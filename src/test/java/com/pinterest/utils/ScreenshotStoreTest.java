@@ -0,0 +1,117 @@
+package com.pinterest.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ScreenshotStoreTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("screenshot-store-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void identicalScreensShareOneBlob() throws IOException {
+        byte[] png = png(1);
+        Path first = ScreenshotStore.store(png, dir.resolve("a.png"));
+        Path second = ScreenshotStore.store(png, dir.resolve("b.png"));
+
+        Assert.assertEquals(second, first);
+        Assert.assertEquals(blobs().size(), 1);
+        Assert.assertEquals(Files.readAllBytes(dir.resolve("b.png")), Files.readAllBytes(first));
+    }
+
+    @Test
+    public void pruneDeletesBlobWithoutLinks() throws IOException {
+        Path kept = ScreenshotStore.store(png(1), dir.resolve("kept.png"));
+        Path dropped = ScreenshotStore.store(png(2), dir.resolve("dropped.png"));
+        age(kept);
+        age(dropped);
+
+        Files.delete(dir.resolve("dropped.png"));
+
+        Assert.assertEquals(ScreenshotStore.pruneOrphans(dir.toString()), 1);
+        Assert.assertFalse(Files.exists(dropped));
+        Assert.assertTrue(Files.exists(kept));
+        Assert.assertEquals(ScreenshotStore.pruneOrphans(dir.toString()), 0);
+    }
+
+    @Test
+    public void pruneSkipsRecentBlobs() throws IOException {
+        Path blob = ScreenshotStore.store(png(1), dir.resolve("a.png"));
+        Files.delete(dir.resolve("a.png"));
+
+        Assert.assertEquals(ScreenshotStore.pruneOrphans(dir.toString()), 0);
+        Assert.assertTrue(Files.exists(blob));
+    }
+
+    @Test
+    public void concurrentWritersOfSameScreenAllSucceed() throws Exception {
+        byte[] png = png(3);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> stored = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                Path link = dir.resolve("shot-" + i + ".png");
+                stored.add(pool.submit((Callable<Path>) () -> ScreenshotStore.store(png, link)));
+            }
+            for (Future<Path> f : stored) {
+                Assert.assertEquals(Files.readAllBytes(f.get()), png);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(blobs().size(), 1, "no temp files left behind");
+    }
+
+    private List<Path> blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(ScreenshotStore.objectsDir(dir.toString()))) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().equals("index.tsv"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /** Past the grace period pruneOrphans gives blobs whose link may not exist yet */
+    static void age(Path blob) throws IOException {
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis() - 60 * 60 * 1000));
+    }
+
+    static byte[] png(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        for (int i = 0; i < 32; i++) {
+            image.setRGB(i, (i * seed) % 32, 0xFFFFFF);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
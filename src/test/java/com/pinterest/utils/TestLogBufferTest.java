@@ -0,0 +1,63 @@
+package com.pinterest.utils;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class TestLogBufferTest {
+
+    private TestLogBuffer appender;
+
+    @BeforeClass
+    public void createAppender() {
+        appender = TestLogBuffer.createAppender("TestLogBufferTest", 3, null, null);
+    }
+
+    @Test
+    public void keepsLastEventsOfRunningTest() {
+        TestLogBuffer.begin("running#1");
+        for (int i = 1; i <= 5; i++) {
+            appender.append(event("running#1", "line " + i));
+        }
+
+        List<String> lines = TestLogBuffer.dump("running#1");
+        Assert.assertEquals(lines.size(), 3);
+        Assert.assertTrue(lines.get(0).endsWith("line 3"), lines.get(0));
+        Assert.assertTrue(TestLogBuffer.dump("running#1").isEmpty());
+    }
+
+    @Test
+    public void dropsEventsArrivingAfterDiscard() {
+        TestLogBuffer.begin("finished#2");
+        appender.append(event("finished#2", "during"));
+        TestLogBuffer.discard("finished#2");
+        appender.append(event("finished#2", "late")); // e.g. still queued in an async logger
+
+        Assert.assertTrue(TestLogBuffer.dump("finished#2").isEmpty());
+    }
+
+    @Test
+    public void ignoresTestsNotBegun() {
+        appender.append(event("unknown#3", "stray"));
+
+        Assert.assertTrue(TestLogBuffer.dump("unknown#3").isEmpty());
+    }
+
+    private static LogEvent event(String testId, String message) {
+        SortedArrayStringMap context = new SortedArrayStringMap();
+        context.putValue(TestLogBuffer.TEST_ID_KEY, testId);
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("test")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setContextData(context)
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+// Client side of the offline Pinterest stand-in (PinterestStubServer). Mirrors the live site's
+// DOM contracts the page objects rely on: modal login/signup forms, inline field errors,
+// hover Save buttons with a board picker, the header account menu and the settings form.
+(function () {
+  'use strict';
+
+  var EMAIL = /^[^\s@]+@[^\s@]+\.[^\s@]+$/;
+  var MESSAGES = {
+    emailMissing: "You missed a spot! Don't forget to add your email.",
+    emailFormat: "Hmm...that doesn't look like an email address.",
+    passwordShort: 'Your password is too short! You need 6+ characters.',
+    birthdate: 'Oops! Please use a valid age to sign up.'
+  };
+
+  function post(path, fields) {
+    return fetch(path, {
+      method: 'POST',
+      credentials: 'same-origin',
+      headers: {'Content-Type': 'application/x-www-form-urlencoded'},
+      body: new URLSearchParams(fields).toString()
+    }).then(function (response) {
+      return response.json();
+    });
+  }
+
+  function openTemplate(id) {
+    closeOverlay();
+    var template = document.getElementById(id);
+    if (!template) {
+      return null;
+    }
+    var overlay = template.content.firstElementChild.cloneNode(true);
+    overlay.setAttribute('data-overlay', '');
+    overlay.addEventListener('click', function (event) {
+      if (event.target === overlay) {
+        closeOverlay();
+      }
+    });
+    document.body.appendChild(overlay);
+    return overlay;
+  }
+
+  function closeOverlay() {
+    var overlay = document.querySelector('[data-overlay]');
+    if (overlay) {
+      overlay.remove();
+    }
+  }
+
+  // Errors are only in the DOM while shown; page objects treat any *error* class as a failure
+  function clearErrors(form) {
+    form.querySelectorAll('[data-slot]').forEach(function (slot) {
+      slot.innerHTML = '';
+    });
+  }
+
+  function showFieldError(form, field, message) {
+    var slot = form.querySelector('[data-slot="' + field + '"]');
+    var error = document.createElement('div');
+    error.id = field + '-error';
+    error.className = 'error';
+    error.setAttribute('role', 'alert');
+    error.textContent = message;
+    slot.appendChild(error);
+  }
+
+  function showPasswordIncorrect(form, message) {
+    var slot = form.querySelector('[data-slot="password"]');
+    var box = document.createElement('div');
+    box.setAttribute('data-test-id', 'touchableErrorMessage');
+    var span = document.createElement('span');
+    span.className = '_GUqAa';
+    span.textContent = message;
+    box.appendChild(span);
+    slot.appendChild(box);
+  }
+
+  function emailProblem(email) {
+    if (!email) {
+      return MESSAGES.emailMissing;
+    }
+    return EMAIL.test(email) ? null : MESSAGES.emailFormat;
+  }
+
+  // m/d/yyyy, at least 13 years old and not in the future
+  function validBirthdate(value) {
+    var parts = /^(\d{1,2})\/(\d{1,2})\/(\d{4})$/.exec(value.trim());
+    if (!parts) {
+      return false;
+    }
+    var born = new Date(+parts[3], +parts[1] - 1, +parts[2]);
+    if (born.getMonth() !== +parts[1] - 1 || born.getDate() !== +parts[2]) {
+      return false;
+    }
+    var thirteen = new Date(born.getFullYear() + 13, born.getMonth(), born.getDate());
+    return thirteen <= new Date();
+  }
+
+  function submitLogin(form) {
+    var email = form.elements.id.value.trim();
+    var password = form.elements.password.value;
+    var problem = emailProblem(email);
+    if (problem) {
+      showFieldError(form, 'email', problem);
+      return;
+    }
+    post('/resource/login', {email: email, password: password}).then(function (result) {
+      if (result.ok) {
+        window.location.href = '/';
+      } else if (result.field === 'password') {
+        showPasswordIncorrect(form, result.message);
+      } else {
+        showFieldError(form, result.field, result.message);
+      }
+    });
+  }
+
+  function submitSignup(form) {
+    var email = form.elements.id.value.trim();
+    var password = form.elements.password.value;
+    var birthdate = form.elements.birthdate.value;
+    var failed = false;
+    var problem = emailProblem(email);
+    if (problem) {
+      showFieldError(form, 'email', problem);
+      failed = true;
+    }
+    if (password.length < 6) {
+      showFieldError(form, 'password', MESSAGES.passwordShort);
+      failed = true;
+    }
+    if (!validBirthdate(birthdate)) {
+      showFieldError(form, 'birthdate', MESSAGES.birthdate);
+      failed = true;
+    }
+    if (failed) {
+      return;
+    }
+    post('/resource/signup', {email: email, password: password, birthdate: birthdate}).then(function (result) {
+      if (result.ok) {
+        window.location.href = '/';
+      } else {
+        showFieldError(form, result.field, result.message);
+      }
+    });
+  }
+
+  function submitSettings(form) {
+    var fields = {};
+    ['first_name', 'last_name', 'about', 'username'].forEach(function (name) {
+      fields[name] = form.elements[name].value;
+    });
+    post('/resource/settings', fields).then(function (result) {
+      var toast = document.createElement('div');
+      toast.className = 'toast';
+      toast.textContent = result.ok ? 'Profile saved' : result.message;
+      document.body.appendChild(toast);
+      setTimeout(function () {
+        toast.remove();
+      }, 3000);
+    });
+  }
+
+  function openBoardPicker(pin) {
+    var overlay = openTemplate('board-picker');
+    overlay.querySelectorAll('[data-board]').forEach(function (board) {
+      board.addEventListener('click', function () {
+        post('/resource/pin/save', {pin: pin.getAttribute('data-pin-id'), board: board.getAttribute('data-board')})
+          .then(function (result) {
+            if (!result.ok) {
+              return;
+            }
+            closeOverlay();
+            pin.classList.add('saved');
+            var label = pin.querySelector('.lIkAnG');
+            label.textContent = 'Saved';
+            label.parentNode.setAttribute('aria-label', 'Saved');
+          });
+      });
+    });
+  }
+
+  document.addEventListener('submit', function (event) {
+    var form = event.target;
+    var action = form.getAttribute('data-action');
+    if (!action) {
+      return; // the header search form is a plain GET
+    }
+    event.preventDefault();
+    clearErrors(form);
+    if (action === 'login') {
+      submitLogin(form);
+    } else if (action === 'signup') {
+      submitSignup(form);
+    } else if (action === 'settings') {
+      submitSettings(form);
+    }
+  });
+
+  document.addEventListener('click', function (event) {
+    var target = event.target;
+    var menu = document.querySelector('div[role="menu"]');
+
+    if (target.closest('[data-test-id="login-button"]')) {
+      openTemplate('login-form');
+      return;
+    }
+    if (target.closest('[data-test-id="sign-up-button"]')) {
+      openTemplate('signup-form');
+      return;
+    }
+    if (menu && target.closest('[data-menu-toggle]')) {
+      menu.hidden = !menu.hidden;
+      return;
+    }
+    var link = target.closest('[data-href]');
+    if (link) {
+      window.location.href = link.getAttribute('data-href');
+      return;
+    }
+    var save = target.closest('[data-save]');
+    if (save) {
+      var pin = save.closest('[data-test-id="pin"]');
+      if (!pin.classList.contains('saved')) {
+        openBoardPicker(pin);
+      }
+      return;
+    }
+    if (menu && !menu.hidden && !target.closest('div[role="menu"]')) {
+      menu.hidden = true;
+    }
+  });
+
+  // /login/ opens straight into the form, as the live site does
+  var open = document.body.getAttribute('data-open');
+  if (open === 'login' || open === 'signup') {
+    openTemplate(open + '-form');
+  }
+}());
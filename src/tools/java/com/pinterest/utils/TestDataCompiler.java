@@ -0,0 +1,184 @@
+package com.pinterest.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Build-time generator for the binary test data snapshot read by TestDataSnapshot.
+ *
+ * Run by Maven in process-test-resources (see pom.xml):
+ *   TestDataCompiler <TestData.csv> <TestData.json> <output TestData.bin>
+ */
+public final class TestDataCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: TestDataCompiler <csv> <json> <output>");
+        }
+        Path csv = Paths.get(args[0]);
+        Path json = Paths.get(args[1]);
+        Path out = Paths.get(args[2]);
+
+        byte[] csvBytes = Files.readAllBytes(csv);
+        byte[] jsonBytes = Files.readAllBytes(json);
+        byte[] snapshot = compile(csvBytes, jsonBytes);
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        Files.write(tmp, snapshot);
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println("Test data snapshot written: " + out + " (" + snapshot.length + " bytes)");
+    }
+
+    /**
+     * Compile CSV and JSON source bytes into the snapshot format
+     */
+    public static byte[] compile(byte[] csvBytes, byte[] jsonBytes) throws IOException {
+        String csvText = new String(csvBytes, StandardCharsets.UTF_8);
+        String jsonText = new String(jsonBytes, StandardCharsets.UTF_8);
+
+        List<String> headers = new ArrayList<>();
+        List<Map<String, String>> rows = parseCsv(new BufferedReader(new StringReader(csvText)), headers);
+        Map<String, String> entries = new TreeMap<>(flattenJson(new StringReader(jsonText)));
+
+        // Intern every string once; id 0 is reserved for ""
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        ids.put("", 0);
+        headers.forEach(h -> intern(ids, h));
+        for (Map<String, String> row : rows) {
+            for (String h : headers) {
+                intern(ids, row.get(h));
+            }
+        }
+        entries.forEach((k, v) -> {
+            intern(ids, k);
+            intern(ids, v);
+        });
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(TestDataSnapshot.MAGIC);
+        out.writeShort(TestDataSnapshot.VERSION);
+        out.writeLong(TestDataSnapshot.checksum(csvBytes));
+        out.writeLong(TestDataSnapshot.checksum(jsonBytes));
+
+        // String table: offsets index followed by the UTF-8 payload
+        List<byte[]> encoded = new ArrayList<>(ids.size());
+        for (String s : ids.keySet()) {
+            encoded.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeInt(encoded.size());
+        int offset = 0;
+        for (byte[] e : encoded) {
+            out.writeInt(offset);
+            offset += e.length;
+        }
+        out.writeInt(offset);
+        for (byte[] e : encoded) {
+            out.write(e);
+        }
+
+        // CSV section
+        out.writeInt(headers.size());
+        for (String h : headers) {
+            out.writeInt(ids.get(h));
+        }
+        out.writeInt(rows.size());
+        for (Map<String, String> row : rows) {
+            for (String h : headers) {
+                out.writeInt(ids.get(row.get(h)));
+            }
+        }
+
+        // JSON section, sorted by path for binary search
+        out.writeInt(entries.size());
+        for (Map.Entry<String, String> e : entries.entrySet()) {
+            out.writeInt(ids.get(e.getKey()));
+            out.writeInt(ids.get(e.getValue()));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void intern(Map<String, Integer> ids, String s) {
+        ids.putIfAbsent(s, ids.size());
+    }
+
+    /**
+     * Same rules as CSVReader's text loader: skip blank lines, trim headers and values,
+     * keep trailing empty columns.
+     */
+    public static List<Map<String, String>> parseCsv(BufferedReader reader, List<String> headersOut) throws IOException {
+        List<Map<String, String>> data = new ArrayList<>();
+        String[] headers = null;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (headers == null) {
+                headers = line.split(",");
+                for (int i = 0; i < headers.length; i++) {
+                    headers[i] = headers[i].trim();
+                    headersOut.add(headers[i]);
+                }
+                continue;
+            }
+
+            String[] values = line.split(",", -1);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < headers.length; i++) {
+                row.put(headers[i], (i < values.length) ? values[i].trim() : "");
+            }
+            data.add(row);
+        }
+        return data;
+    }
+
+    /**
+     * Flatten nested JSON objects into dotted paths ("search.validQuery" -> "food recipes")
+     */
+    public static Map<String, String> flattenJson(Reader reader) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        flatten("", JsonParser.parseReader(reader).getAsJsonObject(), entries);
+        return entries;
+    }
+
+    private static void flatten(String prefix, JsonObject object, Map<String, String> entries) {
+        for (Map.Entry<String, JsonElement> e : object.entrySet()) {
+            String path = prefix.isEmpty() ? e.getKey() : prefix + "." + e.getKey();
+            JsonElement value = e.getValue();
+            if (value.isJsonObject()) {
+                flatten(path, value.getAsJsonObject(), entries);
+            } else if (value.isJsonPrimitive()) {
+                entries.put(path, value.getAsString());
+            }
+            // Arrays and nulls are not addressable through JsonReader.get, so they are not stored
+        }
+    }
+
+    private TestDataCompiler() {}
+}
@@ -0,0 +1,273 @@
+package com.pinterest.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build-time code generator for typed test data accessors.
+ *
+ * Reads the CSV header/rows and the JSON structure and writes two immutable classes into
+ * target/generated-test-sources/testdata (see pom.xml):
+ *   com.pinterest.data.TestData      - TestData.validUser().email()       (backed by CSVReader)
+ *   com.pinterest.data.JsonTestData  - JsonTestData.search().validQuery() (backed by JsonReader)
+ *
+ * Every value is resolved once when the generated class initializes, so lookups are plain
+ * field reads and a misspelled key or field is a compile error instead of a runtime failure.
+ *
+ *   TestDataSourceGenerator <TestData.csv> <TestData.json> <output source dir>
+ */
+public final class TestDataSourceGenerator {
+
+    private static final String PACKAGE = "com.pinterest.data";
+    private static final String KEY_COLUMN = "_key";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: TestDataSourceGenerator <csv> <json> <output dir>");
+        }
+        Path csv = Paths.get(args[0]);
+        Path json = Paths.get(args[1]);
+        Path packageDir = Paths.get(args[2]).resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+
+        List<String> headers = new ArrayList<>();
+        List<Map<String, String>> rows;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            rows = TestDataCompiler.parseCsv(reader, headers);
+        }
+        Map<String, String> entries;
+        try (BufferedReader reader = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+            entries = TestDataCompiler.flattenJson(reader);
+        }
+
+        writeIfChanged(packageDir.resolve("TestData.java"), generateCsvSource(headers, rows));
+        writeIfChanged(packageDir.resolve("JsonTestData.java"), generateJsonSource(entries));
+        System.out.println("Test data accessors generated in: " + packageDir);
+    }
+
+    // Keep timestamps stable so incremental compilation is not triggered on every build
+    private static void writeIfChanged(Path file, String source) throws IOException {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        if (Files.exists(file) && Arrays.equals(Files.readAllBytes(file), bytes)) {
+            return;
+        }
+        Files.write(file, bytes);
+    }
+
+    /**
+     * One nested class per CSV row, exposing only the columns that row fills in
+     */
+    static String generateCsvSource(List<String> headers, List<Map<String, String>> rows) {
+        StringBuilder fields = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        StringBuilder types = new StringBuilder();
+        Set<String> seen = new HashSet<>();
+
+        for (Map<String, String> row : rows) {
+            String key = row.get(KEY_COLUMN);
+            if (key == null || key.isEmpty() || !seen.add(key)) {
+                continue;
+            }
+            String method = identifier(key);
+            String type = capitalize(method);
+            String constant = constant(key);
+
+            List<String> columns = new ArrayList<>();
+            for (String header : headers) {
+                if (!header.equals(KEY_COLUMN) && !row.get(header).isEmpty()) {
+                    columns.add(header);
+                }
+            }
+
+            fields.append("    private static final ").append(type).append(' ').append(constant)
+                  .append(" = new ").append(type).append("(CSVReader.getTestData(\"")
+                  .append(escape(key)).append("\"));\n");
+
+            methods.append("\n    /** Row '").append(key).append("' */\n")
+                   .append("    public static ").append(type).append(' ').append(method).append("() {\n")
+                   .append("        return ").append(constant).append(";\n")
+                   .append("    }\n");
+
+            types.append('\n').append(valueClass(type, key, columns, "row"));
+        }
+
+        return header("TestData.csv", "CSVReader")
+                + "import java.util.Map;\n\n"
+                + "/**\n * Typed view of TestData.csv. Generated by TestDataSourceGenerator - do not edit.\n */\n"
+                + "public final class TestData {\n\n"
+                + fields
+                + methods
+                + types
+                + "\n    private TestData() {}\n}\n";
+    }
+
+    private static String valueClass(String type, String key, List<String> columns, String source) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("    public static final class ").append(type).append(" {\n");
+        for (String column : columns) {
+            sb.append("        private final String ").append(identifier(column)).append(";\n");
+        }
+        sb.append("\n        private ").append(type).append("(Map<String, String> ").append(source).append(") {\n");
+        for (String column : columns) {
+            sb.append("            this.").append(identifier(column)).append(" = ").append(source)
+              .append(".get(\"").append(escape(column)).append("\");\n");
+        }
+        sb.append("        }\n");
+        for (String column : columns) {
+            sb.append("\n        public String ").append(identifier(column)).append("() {\n")
+              .append("            return ").append(identifier(column)).append(";\n")
+              .append("        }\n");
+        }
+        sb.append("\n        @Override\n        public String toString() {\n")
+          .append("            return \"").append(escape(key)).append("\";\n")
+          .append("        }\n");
+        sb.append("    }\n");
+        return sb.toString();
+    }
+
+    /**
+     * Nested classes mirroring the JSON object tree
+     */
+    static String generateJsonSource(Map<String, String> entries) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for (String path : entries.keySet()) {
+            insert(tree, path.split("\\."), 0);
+        }
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        StringBuilder types = new StringBuilder();
+
+        for (Map.Entry<String, Object> e : tree.entrySet()) {
+            String method = identifier(e.getKey());
+            String constant = constant(e.getKey());
+            if (e.getValue() instanceof Map) {
+                String type = capitalize(method);
+                fields.append("    private static final ").append(type).append(' ').append(constant)
+                      .append(" = new ").append(type).append("(\"").append(escape(e.getKey())).append("\");\n");
+                methods.append("\n    public static ").append(type).append(' ').append(method).append("() {\n")
+                       .append("        return ").append(constant).append(";\n    }\n");
+                types.append('\n').append(jsonClass(type, castTree(e.getValue()), "    "));
+            } else {
+                fields.append("    private static final String ").append(constant)
+                      .append(" = JsonReader.get(\"").append(escape(e.getKey())).append("\");\n");
+                methods.append("\n    public static String ").append(method).append("() {\n")
+                       .append("        return ").append(constant).append(";\n    }\n");
+            }
+        }
+
+        return header("TestData.json", "JsonReader")
+                + "/**\n * Typed view of TestData.json. Generated by TestDataSourceGenerator - do not edit.\n */\n"
+                + "public final class JsonTestData {\n\n"
+                + fields
+                + methods
+                + types
+                + "\n    private JsonTestData() {}\n}\n";
+    }
+
+    private static String jsonClass(String type, Map<String, Object> children, String indent) {
+        StringBuilder sb = new StringBuilder();
+        StringBuilder init = new StringBuilder();
+        StringBuilder accessors = new StringBuilder();
+        StringBuilder nested = new StringBuilder();
+
+        sb.append(indent).append("public static final class ").append(type).append(" {\n");
+        for (Map.Entry<String, Object> e : children.entrySet()) {
+            String name = identifier(e.getKey());
+            String childPath = "path + \"." + escape(e.getKey()) + "\"";
+            if (e.getValue() instanceof Map) {
+                String childType = capitalize(name);
+                sb.append(indent).append("    private final ").append(childType).append(' ').append(name).append(";\n");
+                init.append(indent).append("        this.").append(name).append(" = new ").append(childType)
+                    .append('(').append(childPath).append(");\n");
+                accessors.append('\n').append(indent).append("    public ").append(childType).append(' ')
+                         .append(name).append("() {\n")
+                         .append(indent).append("        return ").append(name).append(";\n")
+                         .append(indent).append("    }\n");
+                nested.append('\n').append(jsonClass(childType, castTree(e.getValue()), indent + "    "));
+            } else {
+                sb.append(indent).append("    private final String ").append(name).append(";\n");
+                init.append(indent).append("        this.").append(name).append(" = JsonReader.get(")
+                    .append(childPath).append(");\n");
+                accessors.append('\n').append(indent).append("    public String ").append(name).append("() {\n")
+                         .append(indent).append("        return ").append(name).append(";\n")
+                         .append(indent).append("    }\n");
+            }
+        }
+        sb.append('\n').append(indent).append("    private ").append(type).append("(String path) {\n")
+          .append(init)
+          .append(indent).append("    }\n")
+          .append(accessors)
+          .append(nested)
+          .append(indent).append("}\n");
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castTree(Object node) {
+        return (Map<String, Object>) node;
+    }
+
+    private static void insert(Map<String, Object> node, String[] parts, int index) {
+        if (index == parts.length - 1) {
+            node.put(parts[index], parts[index]);
+            return;
+        }
+        Object child = node.computeIfAbsent(parts[index], k -> new LinkedHashMap<String, Object>());
+        insert(castTree(child), parts, index + 1);
+    }
+
+    private static String header(String source, String reader) {
+        return "// Generated from " + source + " by com.pinterest.utils.TestDataSourceGenerator. Do not edit.\n"
+                + "package " + PACKAGE + ";\n\n"
+                + "import com.pinterest.utils." + reader + ";\n\n";
+    }
+
+    /**
+     * "new-user 2" -> "newUser2"; leading digits get an underscore
+     */
+    static String identifier(String name) {
+        StringBuilder sb = new StringBuilder();
+        boolean upperNext = false;
+        for (char c : name.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(upperNext && sb.length() > 0 ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            } else {
+                upperNext = true;
+            }
+        }
+        if (sb.length() == 0 || !Character.isJavaIdentifierStart(sb.charAt(0))) {
+            sb.insert(0, '_');
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String identifier) {
+        return Character.toUpperCase(identifier.charAt(0)) + identifier.substring(1);
+    }
+
+    /**
+     * "newSignupUser2" -> "NEW_SIGNUP_USER2"
+     */
+    private static String constant(String name) {
+        return identifier(name).replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private TestDataSourceGenerator() {}
+}